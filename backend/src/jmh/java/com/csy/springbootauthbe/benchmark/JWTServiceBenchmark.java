@@ -0,0 +1,74 @@
+package com.csy.springbootauthbe.benchmark;
+
+import com.csy.springbootauthbe.config.JWTService;
+import com.csy.springbootauthbe.user.entity.AccountStatus;
+import com.csy.springbootauthbe.user.entity.Role;
+import com.csy.springbootauthbe.user.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing, full signature verification (claims cache disabled) and the
+ * cached claim lookup that JWTAuthenticationFilter hits on repeat requests.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTServiceBenchmark {
+
+    private static final String SECRET = "ZmFrZS1zZWNyZXQta2V5LWZvci10ZXN0cy0xMjM0NTY3ODkwYWJjZGVm";
+
+    private JWTService cachingService;
+    private JWTService verifyingService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingService = newService(300_000L);
+        // A zero TTL means nothing is ever cached, so every parse checks the signature
+        verifyingService = newService(0L);
+        user = User.builder()
+                .id("U1")
+                .email("student@example.com")
+                .role(Role.STUDENT)
+                .status(AccountStatus.ACTIVE)
+                .build();
+        token = cachingService.generateToken(user);
+        cachingService.extractUsername(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingService.generateToken(user);
+    }
+
+    @Benchmark
+    public String parseVerified() {
+        return verifyingService.extractUsername(token);
+    }
+
+    @Benchmark
+    public String parseCached() {
+        return cachingService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValidCached() {
+        return cachingService.isTokenValid(token, user);
+    }
+
+    private static JWTService newService(long cacheTtlMs) {
+        JWTService service = new JWTService();
+        ReflectionTestUtils.setField(service, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(service, "claimsCacheTtlMs", cacheTtlMs);
+        ReflectionTestUtils.setField(service, "claimsCacheMaxSize", 1000);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,125 @@
+package com.csy.springbootauthbe.benchmark;
+
+import com.csy.springbootauthbe.booking.dto.BookingDTO;
+import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.booking.entity.BookingStatus;
+import com.csy.springbootauthbe.booking.mapper.BookingMapper;
+import com.csy.springbootauthbe.notification.dto.NotificationDTO;
+import com.csy.springbootauthbe.notification.entity.Notification;
+import com.csy.springbootauthbe.notification.mapper.NotificationMapper;
+import com.csy.springbootauthbe.tutor.dto.TutorDTO;
+import com.csy.springbootauthbe.tutor.entity.Availability;
+import com.csy.springbootauthbe.tutor.entity.QualificationFile;
+import com.csy.springbootauthbe.tutor.entity.Tutor;
+import com.csy.springbootauthbe.tutor.mapper.TutorMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO conversion through the MapStruct-generated mappers, using the same
+ * implementations Spring injects (loaded here without a context).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private BookingMapper bookingMapper;
+    private TutorMapper tutorMapper;
+    private NotificationMapper notificationMapper;
+
+    private Booking booking;
+    private Tutor tutor;
+    private TutorDTO tutorDto;
+    private Notification notification;
+
+    @Setup
+    public void setUp() {
+        bookingMapper = Mappers.getMapper(BookingMapper.class);
+        tutorMapper = Mappers.getMapper(TutorMapper.class);
+        notificationMapper = Mappers.getMapper(NotificationMapper.class);
+
+        booking = Booking.builder()
+                .id("65f1c0ffee0000000000b001")
+                .tutorId("65f1c0ffee0000000000t001")
+                .studentId("65f1c0ffee0000000000s001")
+                .date("2025-03-14")
+                .start("10:00")
+                .end("11:00")
+                .lessonType("Online")
+                .status(BookingStatus.CONFIRMED)
+                .amount(new BigDecimal("45.00"))
+                .createdAt(LocalDateTime.of(2025, 3, 1, 9, 30))
+                .updatedAt(LocalDateTime.of(2025, 3, 2, 9, 30))
+                .build();
+
+        Map<String, Availability> availability = new LinkedHashMap<>();
+        for (String day : List.of("Mon", "Tue", "Wed", "Thu", "Fri")) {
+            availability.put(day, Availability.builder().enabled(true).start("09:00").end("17:00").build());
+        }
+        List<QualificationFile> qualifications = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            qualifications.add(QualificationFile.builder()
+                    .name("certificate-" + i + ".pdf")
+                    .type("pdf")
+                    .path("qualifications/t001/certificate-" + i + ".pdf")
+                    .uploadedAt(new Date(1_700_000_000_000L))
+                    .hash("sha256-" + i)
+                    .isDeleted(i == 3)
+                    .build());
+        }
+        tutor = Tutor.builder()
+                .id("65f1c0ffee0000000000t001")
+                .userId("65f1c0ffee0000000000u001")
+                .subject("Mathematics")
+                .hourlyRate(45.0)
+                .qualifications(qualifications)
+                .availability(availability)
+                .profileImageUrl("https://example.com/profile/t001.jpg")
+                .lessonType(List.of("Online", "In-person"))
+                .description("Secondary and A-level maths")
+                .build();
+        tutorDto = tutorMapper.toDTO(tutor);
+
+        notification = Notification.builder()
+                .id("65f1c0ffee0000000000n001")
+                .userId("65f1c0ffee0000000000u001")
+                .type("booking_accepted")
+                .bookingId(booking.getId())
+                .message("Your booking on 2025-03-14 10:00 was accepted")
+                .createdAt(LocalDateTime.of(2025, 3, 2, 9, 30))
+                .build();
+    }
+
+    @Benchmark
+    public BookingDTO bookingToDto() {
+        return bookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public TutorDTO tutorToDto() {
+        return tutorMapper.toDTO(tutor);
+    }
+
+    @Benchmark
+    public Tutor tutorToEntity() {
+        return tutorMapper.toEntity(tutorDto);
+    }
+
+    @Benchmark
+    public NotificationDTO notificationToDto() {
+        return notificationMapper.toDto(notification);
+    }
+}
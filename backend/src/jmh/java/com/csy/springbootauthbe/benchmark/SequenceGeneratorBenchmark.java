@@ -0,0 +1,79 @@
+package com.csy.springbootauthbe.benchmark;
+
+import com.csy.springbootauthbe.common.sequence.Counter;
+import com.csy.springbootauthbe.common.sequence.SequenceGeneratorService;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Throughput of {@link SequenceGeneratorService#getNextSequence} under contention, one
+ * value per findAndModify (block size 1) against hi/lo blocks. The counters document is
+ * simulated: updates to it are serialized and each one costs {@code roundTripMicros}, so
+ * single-value mode is bound by the round trip however many threads ask. Change the
+ * thread count with {@code -t}, e.g. {@code -Djmh.args="SequenceGenerator -t 32"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class SequenceGeneratorBenchmark {
+
+    @Param({"1", "100"})
+    public int blockSize;
+
+    @Param({"200"})
+    public long roundTripMicros;
+
+    private final ReentrantLock document = new ReentrantLock();
+    private long seq;
+    private SequenceGeneratorService service;
+
+    @Setup
+    public void setUp() {
+        // Stub-only, so the mock does not record millions of invocations
+        MongoOperations mongo = mock(MongoOperations.class, withSettings().stubOnly());
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        when(mongo.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Counter.class)))
+                .thenAnswer(inv -> {
+                    Update update = inv.getArgument(1);
+                    long by = ((Number) update.getUpdateObject().get("$inc", Document.class).get("seq")).longValue();
+                    document.lock();
+                    try {
+                        LockSupport.parkNanos(roundTripNanos);
+                        seq += by;
+                        return new Counter("eventId", seq);
+                    } finally {
+                        document.unlock();
+                    }
+                });
+
+        service = new SequenceGeneratorService();
+        ReflectionTestUtils.setField(service, "mongoOperations", mongo);
+        ReflectionTestUtils.setField(service, "environment", new MockEnvironment()
+                .withProperty("sequence.block-size.eventId", String.valueOf(blockSize)));
+    }
+
+    @Benchmark
+    public long nextValue() {
+        return service.getNextSequence("eventId");
+    }
+}
@@ -0,0 +1,76 @@
+package com.csy.springbootauthbe.benchmark;
+
+import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.booking.entity.BookingStatus;
+import com.csy.springbootauthbe.common.schedule.IntervalIndex;
+import com.csy.springbootauthbe.common.schedule.SlotConflictService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The booking overlap check: the original stream scan with string comparisons
+ * against {@link SlotConflictService#indexBookings} plus {@link IntervalIndex#overlaps},
+ * both when the index is rebuilt per check (ttl 0, the default) and when it is cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotConflictBenchmark {
+
+    private static final List<BookingStatus> ACTIVE = SlotConflictService.ACTIVE_BOOKING_STATUSES;
+
+    /** Bookings the tutor already has that day. */
+    @Param({"4", "16", "48"})
+    public int bookingsPerDay;
+
+    private List<Booking> bookings;
+    private IntervalIndex index;
+    private String requestStart;
+    private String requestEnd;
+
+    @Setup
+    public void setUp() {
+        bookings = new ArrayList<>(bookingsPerDay);
+        BookingStatus[] statuses = BookingStatus.values();
+        // Back-to-back 15 minute bookings from 08:00, leaving the last slot of the day free
+        for (int i = 0; i < bookingsPerDay; i++) {
+            int startMinute = 8 * 60 + i * 15;
+            bookings.add(Booking.builder()
+                    .start(hhmm(startMinute))
+                    .end(hhmm(startMinute + 15))
+                    .status(statuses[i % statuses.length])
+                    .build());
+        }
+        index = SlotConflictService.indexBookings(bookings);
+        requestStart = "23:00";
+        requestEnd = "23:30";
+    }
+
+    @Benchmark
+    public boolean legacyStreamScan() {
+        return bookings.stream()
+                .filter(b -> ACTIVE.contains(b.getStatus()))
+                .anyMatch(b -> b.getStart().compareTo(requestEnd) < 0 && requestStart.compareTo(b.getEnd()) < 0);
+    }
+
+    @Benchmark
+    public boolean buildIndexAndCheck() {
+        return SlotConflictService.indexBookings(bookings)
+                .overlaps(SlotConflictService.minuteOfDay(requestStart), SlotConflictService.minuteOfDay(requestEnd));
+    }
+
+    @Benchmark
+    public boolean cachedIndexCheck() {
+        return index.overlaps(SlotConflictService.minuteOfDay(requestStart), SlotConflictService.minuteOfDay(requestEnd));
+    }
+
+    private static String hhmm(int minuteOfDay) {
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+}
@@ -0,0 +1,66 @@
+package com.csy.springbootauthbe.student.service;
+
+import com.csy.springbootauthbe.student.dto.TutorProfileDTO;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link StudentServiceImpl#mapToTutorDTO} on a document shaped like one row of the
+ * searchTutors / getTutorById aggregation. Lives in the service's package because the
+ * mapper is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TutorProfileMappingBenchmark {
+
+    @Param({"0", "5"})
+    public int qualificationCount;
+
+    private Document doc;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> availability = new LinkedHashMap<>();
+        for (String day : List.of("Mon", "Tue", "Wed", "Thu", "Fri")) {
+            availability.put(day, new Document("enabled", true).append("start", "09:00").append("end", "17:00"));
+        }
+        List<Document> qualifications = new ArrayList<>();
+        for (int i = 0; i < qualificationCount; i++) {
+            qualifications.add(new Document("name", "certificate-" + i + ".pdf")
+                    .append("type", "pdf")
+                    .append("path", "qualifications/t001/certificate-" + i + ".pdf")
+                    .append("uploadedAt", new Date(1_700_000_000_000L))
+                    .append("updatedAt", new Date(1_700_000_000_000L))
+                    .append("hash", "sha256-" + i)
+                    .append("isDeleted", false));
+        }
+        doc = new Document("_id", new ObjectId())
+                .append("userId", "65f1c0ffee0000000000u001")
+                .append("firstname", "Ada")
+                .append("lastname", "Lovelace")
+                .append("subject", "Mathematics")
+                .append("hourlyRate", 45.0)
+                .append("availability", availability)
+                .append("description", "Secondary and A-level maths")
+                .append("profileImageUrl", "https://example.com/profile/t001.jpg")
+                .append("lessonType", List.of("Online", "In-person"))
+                .append("qualifications", qualifications);
+    }
+
+    @Benchmark
+    public TutorProfileDTO mapToTutorDTO() {
+        return StudentServiceImpl.mapToTutorDTO(doc);
+    }
+}
@@ -0,0 +1,71 @@
+package com.csy.springbootauthbe.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects per-endpoint request latencies from many threads and turns them into
+ * count / errors / p50 / p99 / max / throughput figures.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long elapsedNanos, boolean success) {
+        Series s = series.computeIfAbsent(endpoint, k -> new Series());
+        s.latencies.add(elapsedNanos);
+        if (!success) {
+            s.errors.increment();
+        }
+    }
+
+    void reset() {
+        series.clear();
+    }
+
+    /** Endpoint name to its stats, sorted by name so reports diff cleanly between builds. */
+    Map<String, Map<String, Object>> summarize(long wallClockNanos) {
+        double seconds = wallClockNanos / 1_000_000_000.0;
+        Map<String, Map<String, Object>> out = new TreeMap<>();
+        series.forEach((endpoint, s) -> {
+            long[] sorted = s.latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", sorted.length);
+            stats.put("errors", s.errors.sum());
+            stats.put("p50Ms", millis(percentile(sorted, 50)));
+            stats.put("p99Ms", millis(percentile(sorted, 99)));
+            stats.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+            stats.put("throughputPerSec", round(seconds > 0 ? sorted.length / seconds : 0));
+            out.put(endpoint, stats);
+        });
+        return out;
+    }
+
+    // Nearest-rank percentile
+    static long percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static final class Series {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,274 @@
+package com.csy.springbootauthbe.loadtest;
+
+import com.csy.springbootauthbe.SpringbootAuthBeApplication;
+import com.csy.springbootauthbe.user.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test: boots the application on a random port against an embedded
+ * MongoDB, seeds tutors/students/wallets, then drives concurrent
+ * register → login → search → book → accept → cancel flows over HTTP, through the
+ * real security filter chain and controllers. Per-endpoint p50/p99 and throughput are
+ * written as JSON so runs can be diffed between builds.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--loadtest.concurrency=32 --loadtest.flows=2000"
+ * </pre>
+ *
+ * Options (any other Spring property can be passed the same way):
+ * loadtest.tutors (20), loadtest.students (200), loadtest.concurrency (16),
+ * loadtest.flows (500), loadtest.warmup-flows (50), loadtest.output (target/loadtest/report.json).
+ */
+public class LoadTestRunner {
+
+    // Test-only HS256 key, same as JWTServiceTest
+    private static final String JWT_SECRET = "ZmFrZS1zZWNyZXQta2V5LWZvci10ZXN0cy0xMjM0NTY3ODkwYWJjZGVm";
+    private static final LocalDate FIRST_BOOKING_DATE = LocalDate.of(2030, 1, 7);
+    private static final int SLOTS_PER_DAY = 24; // 30 minute slots from 08:00 to 20:00
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final AtomicLong flowSequence = new AtomicLong();
+    private final LongAdder failedFlows = new LongAdder();
+    private final String baseUrl;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private List<User> tutors;
+    private List<String> tutorTokens;
+    private List<User> students;
+
+    LoadTestRunner(int port) {
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (TransitionWalker.ReachedState<RunningMongodProcess> mongod = Mongod.instance().start(Version.Main.V6_0)) {
+            ServerAddress address = mongod.current().getServerAddress();
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringbootAuthBeApplication.class)
+                    .properties(
+                            "spring.data.mongodb.uri=mongodb://" + address.getHost() + ":" + address.getPort() + "/loadtest",
+                            "server.port=0",
+                            "jwt.secret.key=" + JWT_SECRET,
+                            "aws.s3.access-key=dummy",
+                            "aws.s3.secret-key=dummy",
+                            "aws.s3.region=us-east-1",
+                            "aws.s3.bucket=loadtest-bucket",
+                            "stripe.secret-key=dummy",
+                            "logging.level.com.csy.springbootauthbe=WARN")
+                    .run(args);
+            try {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                new LoadTestRunner(port).run(context);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    void run(ConfigurableApplicationContext context) throws Exception {
+        Environment env = context.getEnvironment();
+        int tutorCount = env.getProperty("loadtest.tutors", Integer.class, 20);
+        int studentCount = env.getProperty("loadtest.students", Integer.class, 200);
+        int concurrency = env.getProperty("loadtest.concurrency", Integer.class, 16);
+        int flows = env.getProperty("loadtest.flows", Integer.class, 500);
+        int warmupFlows = env.getProperty("loadtest.warmup-flows", Integer.class, 50);
+        Path output = Path.of(env.getProperty("loadtest.output", "target/loadtest/report.json"));
+
+        LoadTestSeeder seeder = new LoadTestSeeder(context.getBean(MongoTemplate.class), context.getBean(PasswordEncoder.class));
+        tutors = seeder.seedTutors(tutorCount);
+        students = seeder.seedStudents(studentCount);
+        tutorTokens = new ArrayList<>(tutorCount);
+        for (User tutor : tutors) {
+            tutorTokens.add(login(tutor.getEmail()));
+        }
+
+        runFlows(warmupFlows, concurrency);
+        recorder.reset();
+        failedFlows.reset();
+
+        long started = System.nanoTime();
+        runFlows(flows, concurrency);
+        long elapsed = System.nanoTime() - started;
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("tutors", tutorCount);
+        config.put("students", studentCount);
+        config.put("concurrency", concurrency);
+        config.put("flows", flows);
+        config.put("warmupFlows", warmupFlows);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("config", config);
+        report.put("durationMs", elapsed / 1_000_000);
+        report.put("flowsFailed", failedFlows.sum());
+        report.put("flowsPerSec", Math.round(flows / (elapsed / 1_000_000_000.0) * 100) / 100.0);
+        report.put("endpoints", recorder.summarize(elapsed));
+
+        String json = JSON.writeValueAsString(report);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Files.writeString(output, json);
+        System.out.println(json);
+        System.out.println("Report written to " + output.toAbsolutePath());
+    }
+
+    private void runFlows(int count, int concurrency) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                futures.add(pool.submit(this::runFlow));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void runFlow() {
+        long n = flowSequence.getAndIncrement();
+        int tutorIndex = (int) (n % tutors.size());
+        User tutor = tutors.get(tutorIndex);
+        String tutorToken = tutorTokens.get(tutorIndex);
+        User student = students.get((int) (n % students.size()));
+
+        // Every flow books its own tutor-slot, so flows never conflict with each other
+        long slot = n / tutors.size();
+        String date = FIRST_BOOKING_DATE.plusDays(slot / SLOTS_PER_DAY).toString();
+        int startMinute = 8 * 60 + (int) (slot % SLOTS_PER_DAY) * 30;
+
+        try {
+            call("POST /api/v1/auth/register", post("/api/v1/auth/register", null, Map.of(
+                    "firstname", "new",
+                    "lastname", "student",
+                    "email", "new-" + runId + "-" + n + "@loadtest.local",
+                    "password", LoadTestSeeder.PASSWORD,
+                    "role", "Student")));
+
+            String studentToken = login(student.getEmail());
+
+            call("POST /api/v1/students/search", post("/api/v1/students/search", studentToken,
+                    Map.of("subject", LoadTestSeeder.SUBJECTS[(int) (n % LoadTestSeeder.SUBJECTS.length)])));
+
+            Map<String, Object> booking = new LinkedHashMap<>();
+            booking.put("tutorId", tutor.getId());
+            booking.put("studentId", student.getId());
+            booking.put("lessonType", "Online");
+            booking.put("date", date);
+            booking.put("start", hhmm(startMinute));
+            booking.put("end", hhmm(startMinute + 30));
+            booking.put("amount", 30);
+            String bookingId = call("POST /api/v1/bookings", post("/api/v1/bookings", studentToken, booking))
+                    .get("id").asText();
+
+            call("PUT /api/v1/bookings/{id}/accept",
+                    put("/api/v1/bookings/" + bookingId + "/accept", tutorToken));
+            call("PUT /api/v1/bookings/{id}/cancel/{userId}",
+                    put("/api/v1/bookings/" + bookingId + "/cancel/" + tutor.getId(), tutorToken));
+        } catch (FlowFailedException e) {
+            failedFlows.increment();
+        }
+    }
+
+    private String login(String email) {
+        return call("POST /api/v1/auth/login", post("/api/v1/auth/login", null,
+                Map.of("email", email, "password", LoadTestSeeder.PASSWORD)))
+                .path("user").path("token").asText();
+    }
+
+    private JsonNode call(String endpoint, HttpRequest request) {
+        long started = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - started, false);
+            throw new FlowFailedException(endpoint + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlowFailedException(endpoint + " interrupted");
+        }
+        boolean ok = response.statusCode() / 100 == 2;
+        recorder.record(endpoint, System.nanoTime() - started, ok);
+        if (!ok) {
+            throw new FlowFailedException(endpoint + " returned " + response.statusCode());
+        }
+        try {
+            return JSON.readTree(response.body());
+        } catch (IOException e) {
+            throw new FlowFailedException(endpoint + " returned unreadable body");
+        }
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        try {
+            return request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new FlowFailedException("Could not serialize request for " + path);
+        }
+    }
+
+    private HttpRequest put(String path, String token) {
+        return request(path, token).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static String hhmm(int minuteOfDay) {
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    private static class FlowFailedException extends RuntimeException {
+        FlowFailedException(String message) {
+            super(message);
+        }
+    }
+}
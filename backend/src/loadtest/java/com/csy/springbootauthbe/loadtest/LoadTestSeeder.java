@@ -0,0 +1,98 @@
+package com.csy.springbootauthbe.loadtest;
+
+import com.csy.springbootauthbe.student.entity.Student;
+import com.csy.springbootauthbe.tutor.entity.Availability;
+import com.csy.springbootauthbe.tutor.entity.Tutor;
+import com.csy.springbootauthbe.user.entity.AccountStatus;
+import com.csy.springbootauthbe.user.entity.Role;
+import com.csy.springbootauthbe.user.entity.User;
+import com.csy.springbootauthbe.wallet.entity.Wallet;
+import com.csy.springbootauthbe.wallet.entity.WalletSnapshot;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk-inserts the accounts a load test runs against, bypassing the HTTP layer so
+ * seeding time does not depend on BCrypt: every seeded user shares one password hash.
+ */
+class LoadTestSeeder {
+
+    static final String PASSWORD = "LoadTest#2025";
+    static final String[] SUBJECTS = {"Mathematics", "Physics", "Chemistry", "English", "Biology"};
+
+    private static final BigDecimal STARTING_BALANCE = new BigDecimal("1000000");
+
+    private final MongoTemplate mongoTemplate;
+    private final String passwordHash;
+
+    LoadTestSeeder(MongoTemplate mongoTemplate, PasswordEncoder passwordEncoder) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordHash = passwordEncoder.encode(PASSWORD);
+    }
+
+    /** Seeds active tutors with weekday availability and returns their users. */
+    List<User> seedTutors(int count) {
+        List<User> users = insertUsers("tutor", Role.TUTOR, count);
+
+        Map<String, Availability> availability = new LinkedHashMap<>();
+        for (String day : List.of("Mon", "Tue", "Wed", "Thu", "Fri")) {
+            availability.put(day, Availability.builder().enabled(true).start("08:00").end("20:00").build());
+        }
+        List<Tutor> tutors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tutors.add(Tutor.builder()
+                    .userId(users.get(i).getId())
+                    .subject(SUBJECTS[i % SUBJECTS.length])
+                    .hourlyRate(20.0 + i % 40)
+                    .availability(availability)
+                    .lessonType(List.of("Online"))
+                    .description("Load test tutor " + i)
+                    .build());
+        }
+        mongoTemplate.insert(tutors, Tutor.class);
+        return users;
+    }
+
+    /** Seeds students, each with a wallet large enough to never run dry during a run. */
+    List<User> seedStudents(int count) {
+        List<User> users = insertUsers("student", Role.STUDENT, count);
+
+        List<Student> students = new ArrayList<>(count);
+        List<Wallet> wallets = new ArrayList<>(count);
+        List<WalletSnapshot> snapshots = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            String userId = users.get(i).getId();
+            students.add(Student.builder().userId(userId).studentNumber("LT" + i).gradeLevel("Sec 4").build());
+            // Opened the way WalletBalanceMigration opens existing wallets: seq 0 plus a matching snapshot
+            wallets.add(new Wallet(null, userId, STARTING_BALANCE, "SGD", now, 0L));
+            snapshots.add(WalletSnapshot.builder().studentId(userId).seq(0).balance(STARTING_BALANCE).createdAt(now).build());
+        }
+        mongoTemplate.insert(students, Student.class);
+        mongoTemplate.insert(wallets, Wallet.class);
+        mongoTemplate.insert(snapshots, WalletSnapshot.class);
+        return users;
+    }
+
+    private List<User> insertUsers(String prefix, Role role, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .firstname(prefix)
+                    .lastname(String.valueOf(i))
+                    .email(prefix + i + "@loadtest.local")
+                    .password(passwordHash)
+                    .role(role)
+                    .status(AccountStatus.ACTIVE)
+                    .build());
+        }
+        return new ArrayList<>(mongoTemplate.insert(users, User.class));
+    }
+}
@@ -0,0 +1,171 @@
+package com.csy.springbootauthbe.loadtest;
+
+import com.csy.springbootauthbe.common.utils.SanitizedLogger;
+import com.csy.springbootauthbe.config.ThreadingConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Compares request throughput on a Tomcat-sized platform pool against virtual threads,
+ * for handlers that block on S3 {@code putObject} and Stripe {@code Session.create}.
+ * Both are replaced by sleeps of typical latency, so only the threading model differs.
+ * A third mode blocks inside {@code synchronized}, which pins virtual threads to their
+ * carriers and shows why request paths avoid it.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.csy.springbootauthbe.loadtest.ThreadingModeBenchmark \
+ *     -Dloadtest.args="--requests=20000 --concurrency=2000"
+ * </pre>
+ *
+ * Virtual modes need a Java 21 runtime and are reported as skipped otherwise.
+ * Options: requests (20000), concurrency (2000), platform-threads (200, Tomcat's default max),
+ * s3-ms (40), stripe-ms (150), output (target/loadtest/threading-report.json).
+ */
+public class ThreadingModeBenchmark {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final int requests;
+    private final int concurrency;
+    private final long s3Ms;
+    private final long stripeMs;
+    private final Object[] monitors;
+
+    ThreadingModeBenchmark(int requests, int concurrency, long s3Ms, long stripeMs) {
+        this.requests = requests;
+        this.concurrency = concurrency;
+        this.s3Ms = s3Ms;
+        this.stripeMs = stripeMs;
+        // One monitor per in-flight request: no contention, so the pinned mode measures pinning alone
+        this.monitors = new Object[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            monitors[i] = new Object();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int requests = Integer.parseInt(options.getOrDefault("requests", "20000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "2000"));
+        int platformThreads = Integer.parseInt(options.getOrDefault("platform-threads", "200"));
+        long s3Ms = Long.parseLong(options.getOrDefault("s3-ms", "40"));
+        long stripeMs = Long.parseLong(options.getOrDefault("stripe-ms", "150"));
+        Path output = Path.of(options.getOrDefault("output", "target/loadtest/threading-report.json"));
+
+        ThreadingModeBenchmark benchmark = new ThreadingModeBenchmark(requests, concurrency, s3Ms, stripeMs);
+
+        Map<String, Object> modes = new LinkedHashMap<>();
+        ExecutorService platform = Executors.newFixedThreadPool(platformThreads);
+        try {
+            modes.put("platform", benchmark.measure(platform, false));
+        } finally {
+            platform.shutdown();
+        }
+        if (ThreadingConfig.virtualThreadsSupported()) {
+            VirtualThreadTaskExecutor virtual = new VirtualThreadTaskExecutor("bench-");
+            modes.put("virtual", benchmark.measure(virtual, false));
+            modes.put("virtual-pinned", benchmark.measure(virtual, true));
+        } else {
+            modes.put("virtual", Map.of("skipped", "needs a Java 21 runtime"));
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("requests", requests);
+        config.put("concurrency", concurrency);
+        config.put("platformThreads", platformThreads);
+        config.put("s3Ms", s3Ms);
+        config.put("stripeMs", stripeMs);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("config", config);
+        report.put("modes", modes);
+
+        String json = JSON.writeValueAsString(report);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Files.writeString(output, json);
+        System.out.println(json);
+    }
+
+    private Map<String, Object> measure(Executor executor, boolean pinned) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int n = i;
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                boolean ok = true;
+                try {
+                    handle(n, pinned);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    ok = false;
+                } finally {
+                    recorder.record(endpoint(n), System.nanoTime() - submitted, ok);
+                    inFlight.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - started;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("durationMs", elapsed / 1_000_000);
+        result.put("requestsPerSec", Math.round(requests / (elapsed / 1_000_000_000.0) * 100) / 100.0);
+        result.put("endpoints", recorder.summarize(elapsed));
+        return result;
+    }
+
+    // A little real work (log sanitizing, as every controller does) around one blocking call
+    private void handle(int n, boolean pinned) throws InterruptedException {
+        SanitizedLogger.sanitize("request " + n + " for studentId=" + n % 997);
+        long blockMs = isStripe(n) ? stripeMs : s3Ms;
+        if (pinned) {
+            synchronized (monitors[n % monitors.length]) {
+                Thread.sleep(blockMs);
+            }
+        } else {
+            Thread.sleep(blockMs);
+        }
+    }
+
+    // Roughly three uploads for every checkout
+    private static boolean isStripe(int n) {
+        return n % 4 == 3;
+    }
+
+    private static String endpoint(int n) {
+        return isStripe(n) ? "POST /api/v1/wallet/create-checkout-session" : "POST /api/v1/tutors/{id}/profile-picture";
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
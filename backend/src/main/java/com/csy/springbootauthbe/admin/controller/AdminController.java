@@ -2,11 +2,15 @@ package com.csy.springbootauthbe.admin.controller;
 
 import com.csy.springbootauthbe.admin.dto.AdminDTO;
 import com.csy.springbootauthbe.admin.dto.AdminDashboardDTO;
+import com.csy.springbootauthbe.admin.dto.AdminListQuery;
 import com.csy.springbootauthbe.admin.service.AdminService;
+import com.csy.springbootauthbe.common.pagination.CursorPage;
 import com.csy.springbootauthbe.student.dto.StudentDTO;
 import com.csy.springbootauthbe.tutor.dto.TutorDTO;
 import com.csy.springbootauthbe.user.entity.Role;
 import com.csy.springbootauthbe.user.utils.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,9 +21,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/v1/admins")
@@ -27,6 +35,9 @@ import java.util.Optional;
 public class AdminController {
 
     private final AdminService adminService;
+    private final ObjectMapper objectMapper;
+
+    private static final String NDJSON = "application/x-ndjson";
 
     @GetMapping("/by-user/{userId}")
     public ResponseEntity<AdminDTO> getAdminByUserId(@PathVariable String userId) {
@@ -45,6 +56,17 @@ public class AdminController {
         return ResponseEntity.ok(adminService.viewAdmins(adminId));
     }
 
+    @GetMapping("/admins/{adminId}/page")
+    public ResponseEntity<CursorPage<UserResponse>> getAdminsPage(@PathVariable String adminId, AdminListQuery query) {
+        return ResponseEntity.ok(adminService.viewAdminsPage(adminId, query));
+    }
+
+    @GetMapping("/admins/{adminId}/stream")
+    public void streamAdmins(@PathVariable String adminId, AdminListQuery query,
+                             HttpServletResponse response) throws IOException {
+        writeNdjson(response, sink -> adminService.streamAdmins(adminId, query, sink));
+    }
+
     @PutMapping("/suspendAdmin/{adminId}/{userId}")
     public ResponseEntity<UserResponse> suspendAdmin(@PathVariable String adminId, @PathVariable String userId) {
         String updatedUserId = adminService.suspendAdmin(adminId, userId);
@@ -68,6 +90,17 @@ public class AdminController {
         return ResponseEntity.ok(adminService.viewTutors(adminId));
     }
 
+    @GetMapping("/tutors/{adminId}/page")
+    public ResponseEntity<CursorPage<TutorDTO>> getTutorsPage(@PathVariable String adminId, AdminListQuery query) {
+        return ResponseEntity.ok(adminService.viewTutorsPage(adminId, query));
+    }
+
+    @GetMapping("/tutors/{adminId}/stream")
+    public void streamTutors(@PathVariable String adminId, AdminListQuery query,
+                             HttpServletResponse response) throws IOException {
+        writeNdjson(response, sink -> adminService.streamTutors(adminId, query, sink));
+    }
+
     @GetMapping("/getTutorDetails/{tutorId}")
     public ResponseEntity<Optional<TutorDTO>> getTutorDetails(@PathVariable String tutorId) {
         return ResponseEntity.ok(adminService.viewTutorDetail(tutorId));
@@ -110,6 +143,17 @@ public class AdminController {
         return ResponseEntity.ok(adminService.viewStudents(adminId));
     }
 
+    @GetMapping("/students/{adminId}/page")
+    public ResponseEntity<CursorPage<UserResponse>> getStudentsPage(@PathVariable String adminId, AdminListQuery query) {
+        return ResponseEntity.ok(adminService.viewStudentsPage(adminId, query));
+    }
+
+    @GetMapping("/students/{adminId}/stream")
+    public void streamStudents(@PathVariable String adminId, AdminListQuery query,
+                               HttpServletResponse response) throws IOException {
+        writeNdjson(response, sink -> adminService.streamStudents(adminId, query, sink));
+    }
+
     @GetMapping("/getStudentDetails/{studentId}")
     public ResponseEntity<Optional<StudentDTO>> getStudentDetails(@PathVariable String studentId) {
         return ResponseEntity.ok(adminService.viewStudentDetail(studentId));
@@ -132,4 +176,27 @@ public class AdminController {
         String deletedUserId = adminService.deleteStudent(adminId, userId);
         return ResponseEntity.ok(UserResponse.builder().id(deletedUserId).role(Role.STUDENT).build());
     }
+
+    /**
+     * Writes rows as newline-delimited JSON straight to the response as the service
+     * produces them. The permission check runs before the first row, so failures
+     * still reach the exception handler as a normal error response.
+     */
+    private void writeNdjson(HttpServletResponse response, Consumer<Consumer<Object>> producer) throws IOException {
+        response.setContentType(NDJSON);
+        OutputStream out = response.getOutputStream();
+        try {
+            producer.accept(row -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(row));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
 }
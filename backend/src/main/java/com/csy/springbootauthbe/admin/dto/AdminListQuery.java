@@ -0,0 +1,22 @@
+package com.csy.springbootauthbe.admin.dto;
+
+import com.csy.springbootauthbe.user.entity.AccountStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Query parameters for the paged / streamed admin user listings.
+ * Results are ordered by user _id; {@code cursor} is the last _id of the previous page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminListQuery {
+    private AccountStatus status;  // optional status filter
+    private String cursor;         // exclusive _id to continue after
+    private Integer limit;         // page size, capped server-side
+    private String sort;           // "asc" (default) or "desc" on _id
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.List;
@@ -20,6 +21,7 @@ public class Admin {
     private String id;
 
     // Reference to User document for login credentials
+    @Indexed // the admin listing fetches a page of profiles with userId $in
     private String userId;
 
     private List<Permissions> permissions;
@@ -0,0 +1,31 @@
+package com.csy.springbootauthbe.admin.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Materialized user counts for the admin dashboard, kept up to date with $inc
+ * on every registration and status change and periodically reconciled.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "dashboard_counters")
+public class DashboardCounters {
+
+    @Id
+    private String id;
+
+    // role -> status -> number of users, e.g. counts.TUTOR.ACTIVE
+    private Map<String, Map<String, Long>> counts;
+
+    private LocalDateTime reconciledAt;
+}
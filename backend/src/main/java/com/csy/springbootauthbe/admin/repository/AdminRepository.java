@@ -3,10 +3,14 @@ package com.csy.springbootauthbe.admin.repository;
 import com.csy.springbootauthbe.admin.entity.Admin;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AdminRepository extends MongoRepository<Admin, String> {
     Optional<Admin> findByUserId(String userId);
 
+    List<Admin> findAllByUserIdIn(Collection<String> userIds);
+
 }
 
@@ -2,13 +2,16 @@ package com.csy.springbootauthbe.admin.service;
 
 import com.csy.springbootauthbe.admin.dto.AdminDTO;
 import com.csy.springbootauthbe.admin.dto.AdminDashboardDTO;
+import com.csy.springbootauthbe.admin.dto.AdminListQuery;
 import com.csy.springbootauthbe.admin.entity.Permissions;
+import com.csy.springbootauthbe.common.pagination.CursorPage;
 import com.csy.springbootauthbe.student.dto.StudentDTO;
 import com.csy.springbootauthbe.tutor.dto.TutorDTO;
 import com.csy.springbootauthbe.user.utils.UserResponse;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AdminService {
     // -------------------------------
@@ -16,6 +19,10 @@ public interface AdminService {
     // -------------------------------
     List<UserResponse> viewStudents(String adminUserId);
 
+    CursorPage<UserResponse> viewStudentsPage(String adminUserId, AdminListQuery query);
+
+    void streamStudents(String adminUserId, AdminListQuery query, Consumer<? super UserResponse> sink);
+
     Optional<StudentDTO> viewStudentDetail(String studentId);
 
     String suspendStudent(String adminUserId, String studentId);
@@ -29,6 +36,10 @@ public interface AdminService {
     // -------------------------------
     List<TutorDTO> viewTutors(String adminUserId);
 
+    CursorPage<TutorDTO> viewTutorsPage(String adminUserId, AdminListQuery query);
+
+    void streamTutors(String adminUserId, AdminListQuery query, Consumer<? super TutorDTO> sink);
+
     Optional<TutorDTO> viewTutorDetail(String tutorId);
 
     String approveTutor(String adminUserId, String tutorId);
@@ -51,6 +62,10 @@ public interface AdminService {
     // -------------------------------
     List<UserResponse> viewAdmins(String adminUserId);
 
+    CursorPage<UserResponse> viewAdminsPage(String adminUserId, AdminListQuery query);
+
+    void streamAdmins(String adminUserId, AdminListQuery query, Consumer<? super UserResponse> sink);
+
     void createAdmin(AdminDTO adminDTO);
 
     void createAdminByAdmin(String adminUserId, AdminDTO adminDTO);
@@ -2,12 +2,16 @@ package com.csy.springbootauthbe.admin.service;
 
 import com.csy.springbootauthbe.admin.dto.AdminDTO;
 import com.csy.springbootauthbe.admin.dto.AdminDashboardDTO;
+import com.csy.springbootauthbe.admin.dto.AdminListQuery;
 import com.csy.springbootauthbe.admin.entity.Admin;
 import com.csy.springbootauthbe.admin.entity.Permissions;
 import com.csy.springbootauthbe.admin.mapper.AdminMapper;
 import com.csy.springbootauthbe.admin.repository.AdminRepository;
 import com.csy.springbootauthbe.admin.util.AdminResponse;
+import com.csy.springbootauthbe.common.pagination.CursorPage;
+import com.csy.springbootauthbe.common.wrapper.PrincipalCache;
 import com.csy.springbootauthbe.student.dto.StudentDTO;
+import com.csy.springbootauthbe.student.entity.Student;
 import com.csy.springbootauthbe.student.repository.StudentRepository;
 import com.csy.springbootauthbe.student.utils.StudentResponse;
 import com.csy.springbootauthbe.tutor.dto.TutorDTO;
@@ -21,12 +25,25 @@ import com.csy.springbootauthbe.user.repository.UserRepository;
 import com.csy.springbootauthbe.user.utils.UserResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -38,6 +55,13 @@ public class AdminServiceImpl implements AdminService {
     private final UserRepository userRepository;
     private final StudentRepository studentRepository;
     private final TutorRepository tutorRepository;
+    private final PrincipalCache principalCache;
+    private final MongoTemplate mongoTemplate;
+    private final DashboardCounterService dashboardCounterService;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int STREAM_BATCH_SIZE = 500;
 
 
     // -------------------------------
@@ -46,27 +70,19 @@ public class AdminServiceImpl implements AdminService {
     @Override
     public List<UserResponse> viewStudents(String adminUserId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.VIEW_STUDENTS});
-        List<User> students = userRepository.findAllByRole(Role.STUDENT);
-        return students.stream()
-            .map(user -> {
-                UserResponse.UserResponseBuilder builder = UserResponse.builder()
-                    .id(user.getId())
-                    .name(user.getFirstname() + " " + user.getLastname())
-                    .email(user.getEmail())
-                    .role(user.getRole())
-                    .status(user.getStatus());
+        return toStudentRows(userRepository.findAllByRole(Role.STUDENT));
+    }
 
-                    studentRepository.findByUserId(user.getId()).ifPresent(student ->
-                        builder.student(StudentResponse.builder()
-                            .studentNumber(student.getStudentNumber())
-                            .gradeLevel(student.getGradeLevel())
-                            .build()
-                        )
-                    );
-                return builder.build();
-            })
-            .toList();
+    @Override
+    public CursorPage<UserResponse> viewStudentsPage(String adminUserId, AdminListQuery query) {
+        checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.VIEW_STUDENTS});
+        return fetchPage(Role.STUDENT, query, this::toStudentRows);
+    }
 
+    @Override
+    public void streamStudents(String adminUserId, AdminListQuery query, Consumer<? super UserResponse> sink) {
+        checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.VIEW_STUDENTS});
+        streamRows(Role.STUDENT, query, this::toStudentRows, sink);
     }
 
     @Override
@@ -93,8 +109,7 @@ public class AdminServiceImpl implements AdminService {
     public String suspendStudent(String adminUserId, String studentId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.SUSPEND_STUDENT});
         User student = getUserOrThrow(studentId, Role.STUDENT);
-        student.setStatus(AccountStatus.SUSPENDED);
-        userRepository.save(student);
+        changeStatus(student, AccountStatus.SUSPENDED);
         return studentId;
     }
 
@@ -102,8 +117,7 @@ public class AdminServiceImpl implements AdminService {
     public String activateStudent(String adminUserId, String studentId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.SUSPEND_STUDENT});
         User student = getUserOrThrow(studentId, Role.STUDENT);
-        student.setStatus(AccountStatus.ACTIVE);
-        userRepository.save(student);
+        changeStatus(student, AccountStatus.ACTIVE);
         return studentId;
     }
 
@@ -111,8 +125,7 @@ public class AdminServiceImpl implements AdminService {
     public String deleteStudent(String adminUserId, String studentId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.DELETE_STUDENT});
         User student = getUserOrThrow(studentId, Role.STUDENT);
-        student.setStatus(AccountStatus.DELETED);
-        userRepository.save(student);
+        changeStatus(student, AccountStatus.DELETED);
         return studentId;
     }
 
@@ -122,29 +135,19 @@ public class AdminServiceImpl implements AdminService {
     @Override
     public List<TutorDTO> viewTutors(String adminUserId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.VIEW_TUTORS});
-        List<User> tutors = userRepository.findAllByRole(Role.TUTOR);
+        return toTutorRows(userRepository.findAllByRole(Role.TUTOR));
+    }
 
-        return tutors.stream()
-            .map(user -> tutorRepository.findByUserId(user.getId())
-                .map(tutor -> TutorDTO.builder()
-                    .userId(user.getId())
-                    .firstName(user.getFirstname())
-                    .lastName(user.getLastname())
-                    .email(user.getEmail())
-                    .status(String.valueOf(user.getStatus()))
-                    .subject(tutor.getSubject())
-                    .hourlyRate(tutor.getHourlyRate())
-                    .availability(tutor.getAvailability())
-                    .description(tutor.getDescription())
-                    .lessonType(tutor.getLessonType())
-                    .profileImageUrl(tutor.getProfileImageUrl())
-                    .qualifications(tutor.getQualifications())
-                    .build()
-                )
-                .orElse(null) // or skip if tutor not found
-            )
-            .filter(Objects::nonNull)
-            .toList();
+    @Override
+    public CursorPage<TutorDTO> viewTutorsPage(String adminUserId, AdminListQuery query) {
+        checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.VIEW_TUTORS});
+        return fetchPage(Role.TUTOR, query, this::toTutorRows);
+    }
+
+    @Override
+    public void streamTutors(String adminUserId, AdminListQuery query, Consumer<? super TutorDTO> sink) {
+        checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.VIEW_TUTORS});
+        streamRows(Role.TUTOR, query, this::toTutorRows, sink);
     }
 
     @Override
@@ -193,12 +196,11 @@ public class AdminServiceImpl implements AdminService {
             tutorDetails.setStagedProfile(null); // Clear staged profile after approval
         }
         tutorDetails.setRejectedReason(null);
-        tutor.setStatus(AccountStatus.ACTIVE);
         
         
         //TODO: Send notification to tutor about approval
 
-        userRepository.save(tutor);
+        changeStatus(tutor, AccountStatus.ACTIVE);
         tutorRepository.save(tutorDetails);
         return adminUserId;
     }
@@ -212,14 +214,11 @@ public class AdminServiceImpl implements AdminService {
             .orElseThrow(() -> new UsernameNotFoundException("Tutor not found"));
 
         tutorDetails.setRejectedReason(reason);
-        if (tutorDetails.getPreviousStatus() == AccountStatus.UNVERIFIED) {
-            tutor.setStatus(AccountStatus.UNVERIFIED);
-        } else {
-            tutor.setStatus(AccountStatus.ACTIVE);
-        }
+        AccountStatus restoredStatus = tutorDetails.getPreviousStatus() == AccountStatus.UNVERIFIED
+            ? AccountStatus.UNVERIFIED : AccountStatus.ACTIVE;
 
         //TODO: Send notification to tutor about rejection reason
-        userRepository.save(tutor);
+        changeStatus(tutor, restoredStatus);
         tutorRepository.save(tutorDetails);
         return adminUserId;
     }
@@ -228,8 +227,7 @@ public class AdminServiceImpl implements AdminService {
     public String suspendTutor(String adminUserId, String tutorId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.SUSPEND_TUTOR});
         User tutor = getUserOrThrow(tutorId, Role.TUTOR);
-        tutor.setStatus(AccountStatus.SUSPENDED);
-        userRepository.save(tutor);
+        changeStatus(tutor, AccountStatus.SUSPENDED);
         return tutorId;
     }
 
@@ -237,8 +235,7 @@ public class AdminServiceImpl implements AdminService {
     public String activateTutor(String adminUserId, String tutorId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.SUSPEND_TUTOR});
         User tutor = getUserOrThrow(tutorId, Role.TUTOR);
-        tutor.setStatus(AccountStatus.ACTIVE);
-        userRepository.save(tutor);
+        changeStatus(tutor, AccountStatus.ACTIVE);
         return tutorId;
     }
 
@@ -246,8 +243,7 @@ public class AdminServiceImpl implements AdminService {
     public String deleteTutor(String adminUserId, String tutorId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.DELETE_TUTOR});
         User tutor = getUserOrThrow(tutorId, Role.TUTOR);
-        tutor.setStatus(AccountStatus.DELETED);
-        userRepository.save(tutor);
+        changeStatus(tutor, AccountStatus.DELETED);
         return tutorId;
     }
 
@@ -274,25 +270,19 @@ public class AdminServiceImpl implements AdminService {
     @Override
     public List<UserResponse> viewAdmins(String adminUserId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.VIEW_ADMIN});
-        List<User> admins = userRepository.findAllByRole(Role.ADMIN);
-            return admins.stream()
-                .map(user -> {
-                    UserResponse.UserResponseBuilder builder = UserResponse.builder()
-                        .id(user.getId())
-                        .name(user.getFirstname() + " " + user.getLastname())
-                        .email(user.getEmail())
-                        .role(user.getRole())
-                        .status(user.getStatus());
-
-                    adminRepository.findByUserId(user.getId()).ifPresent(admin ->
-                        builder.admin(AdminResponse.builder()
-                            .permissions(admin.getPermissions())
-                            .build()
-                        )
-                    );
-                    return builder.build();
-                })
-                .toList();
+        return toAdminRows(userRepository.findAllByRole(Role.ADMIN));
+    }
+
+    @Override
+    public CursorPage<UserResponse> viewAdminsPage(String adminUserId, AdminListQuery query) {
+        checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.VIEW_ADMIN});
+        return fetchPage(Role.ADMIN, query, this::toAdminRows);
+    }
+
+    @Override
+    public void streamAdmins(String adminUserId, AdminListQuery query, Consumer<? super UserResponse> sink) {
+        checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.VIEW_ADMIN});
+        streamRows(Role.ADMIN, query, this::toAdminRows, sink);
     }
 
     @Override
@@ -324,8 +314,7 @@ public class AdminServiceImpl implements AdminService {
     public String suspendAdmin(String adminUserId, String targetAdminId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.SUSPEND_ADMIN});
         User target = getUserOrThrow(targetAdminId, Role.ADMIN);
-        target.setStatus(AccountStatus.SUSPENDED);
-        userRepository.save(target);
+        changeStatus(target, AccountStatus.SUSPENDED);
         return targetAdminId;
     }
 
@@ -333,8 +322,7 @@ public class AdminServiceImpl implements AdminService {
     public String activateAdmin(String adminUserId, String targetAdminId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.SUSPEND_ADMIN});
         User target = getUserOrThrow(targetAdminId, Role.ADMIN);
-        target.setStatus(AccountStatus.ACTIVE);
-        userRepository.save(target);
+        changeStatus(target, AccountStatus.ACTIVE);
         return targetAdminId;
     }
 
@@ -342,8 +330,7 @@ public class AdminServiceImpl implements AdminService {
     public String deleteAdmin(String adminUserId, String targetAdminId) {
         checkAdminWithPermission(adminUserId, new Permissions[]{Permissions.DELETE_ADMIN});
         User target = getUserOrThrow(targetAdminId, Role.ADMIN);
-        target.setStatus(AccountStatus.DELETED);
-        userRepository.save(target);
+        changeStatus(target, AccountStatus.DELETED);
         return targetAdminId;
     }
 
@@ -351,70 +338,80 @@ public class AdminServiceImpl implements AdminService {
     public AdminDashboardDTO getDashboardSummary(String adminId) {
         checkAdminWithPermission(adminId, new Permissions[]{Permissions.VIEW_TUTORS, Permissions.VIEW_ADMIN,
                 Permissions.VIEW_STUDENTS});
-        List<User> users =  userRepository.findAll();
-        int totalUsers = Math.toIntExact(users.size());
-        int activeUsers = Math.toIntExact(users.stream()
-                .filter(user -> user.getStatus() == AccountStatus.ACTIVE)
-                .count());
-        int suspendedUsers = Math.toIntExact(users.stream()
-                .filter(user -> user.getStatus() == AccountStatus.SUSPENDED)
-                .count());
-
-        int totalTutors = Math.toIntExact(tutorRepository.count());
-        List<User> tutors =  userRepository.findAllByRole(Role.TUTOR);
-        int activeTutors = Math.toIntExact(tutors.stream()
-                        .filter(user -> user.getStatus() == AccountStatus.ACTIVE)
-                        .count());
-        int suspendedTutors = Math.toIntExact(tutors.stream()
-                .filter(user -> user.getStatus() == AccountStatus.SUSPENDED)
-                .count());
-        int unverifiedTutors = Math.toIntExact(tutors.stream()
-                .filter(user -> user.getStatus() == AccountStatus.UNVERIFIED)
-                .count());
-
-        int totalStudents = Math.toIntExact(studentRepository.count());
-        List<User> students =  userRepository.findAllByRole(Role.STUDENT);
-        int activeStudents = Math.toIntExact(students.stream()
-                .filter(user -> user.getStatus() == AccountStatus.ACTIVE)
-                .count());
-        int suspendedStudents = Math.toIntExact(students.stream()
-                .filter(user -> user.getStatus() == AccountStatus.SUSPENDED)
-                .count());
-
-        int totalAdmins = Math.toIntExact(adminRepository.count());
-        List<User> admins =  userRepository.findAllByRole(Role.ADMIN);
-        int activeAdmins = Math.toIntExact(admins.stream()
-                .filter(user -> user.getStatus() == AccountStatus.ACTIVE)
-                .count());
-        int suspendedAdmins = Math.toIntExact(admins.stream()
-                .filter(user -> user.getStatus() == AccountStatus.SUSPENDED)
-                .count());
-
-        List<TutorDTO> pendingTutors = tutors.stream()
-                .map(user -> tutorRepository.findByUserId(user.getId())
-                        .map(tutor -> TutorDTO.builder()
-                                .userId(user.getId())
-                                .firstName(user.getFirstname())
-                                .lastName(user.getLastname())
-                                .email(user.getEmail())
-                                .status(String.valueOf(user.getStatus()))
-                                .subject(tutor.getSubject())
-                                .hourlyRate(tutor.getHourlyRate())
-                                .availability(tutor.getAvailability())
-                                .description(tutor.getDescription())
-                                .lessonType(tutor.getLessonType())
-                                .profileImageUrl(tutor.getProfileImageUrl())
-                                .qualifications(tutor.getQualifications())
-                                .build()
-                        )
-                        .orElse(null) // or skip if tutor not found
-                ).filter(Objects::nonNull)
-                .filter(user -> Objects.equals(user.getStatus(), AccountStatus.PENDING_APPROVAL.toString()))
-                .toList();
+
+        // Counts come from the materialized counters document; only pending tutors are queried
+        Map<String, Integer> counts = dashboardCounterService.currentCounts();
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("role").is(Role.TUTOR.name())
+                .and("status").is(AccountStatus.PENDING_APPROVAL.name())),
+            Aggregation.project("firstname", "lastname", "email", "status"),
+            Aggregation.addFields()
+                .addFieldWithValue("userIdStr", new Document("$toString", "$_id"))
+                .build(),
+            Aggregation.lookup("tutors", "userIdStr", "userId", "tutor"),
+            Aggregation.unwind("tutor")
+        );
+
+        List<TutorDTO> pendingTutors = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, "users", Document.class).getMappedResults()) {
+            Tutor tutor = mongoTemplate.getConverter().read(Tutor.class, row.get("tutor", Document.class));
+            pendingTutors.add(TutorDTO.builder()
+                .userId(row.getObjectId("_id").toHexString())
+                .firstName(row.getString("firstname"))
+                .lastName(row.getString("lastname"))
+                .email(row.getString("email"))
+                .status(row.getString("status"))
+                .subject(tutor.getSubject())
+                .hourlyRate(tutor.getHourlyRate())
+                .availability(tutor.getAvailability())
+                .description(tutor.getDescription())
+                .lessonType(tutor.getLessonType())
+                .profileImageUrl(tutor.getProfileImageUrl())
+                .qualifications(tutor.getQualifications())
+                .build());
+        }
+
+        return buildDashboard(counts, pendingTutors);
+    }
+
+    private AdminDashboardDTO buildDashboard(Map<String, Integer> counts, List<TutorDTO> pendingTutors) {
+        int totalUsers = counts.values().stream().mapToInt(Integer::intValue).sum();
+        int activeUsers = countByStatus(counts, AccountStatus.ACTIVE);
+        int suspendedUsers = countByStatus(counts, AccountStatus.SUSPENDED);
 
         return new AdminDashboardDTO(totalUsers, activeUsers, suspendedUsers,
-                totalTutors, activeTutors, suspendedTutors, unverifiedTutors, totalStudents, activeStudents,
-                suspendedStudents, totalAdmins, activeAdmins, suspendedAdmins, pendingTutors);
+                countByRole(counts, Role.TUTOR),
+                count(counts, Role.TUTOR, AccountStatus.ACTIVE),
+                count(counts, Role.TUTOR, AccountStatus.SUSPENDED),
+                count(counts, Role.TUTOR, AccountStatus.UNVERIFIED),
+                countByRole(counts, Role.STUDENT),
+                count(counts, Role.STUDENT, AccountStatus.ACTIVE),
+                count(counts, Role.STUDENT, AccountStatus.SUSPENDED),
+                countByRole(counts, Role.ADMIN),
+                count(counts, Role.ADMIN, AccountStatus.ACTIVE),
+                count(counts, Role.ADMIN, AccountStatus.SUSPENDED),
+                pendingTutors);
+    }
+
+    private static int count(Map<String, Integer> counts, Role role, AccountStatus status) {
+        return counts.getOrDefault(DashboardCounterService.countKey(role, status), 0);
+    }
+
+    private static int countByRole(Map<String, Integer> counts, Role role) {
+        int total = 0;
+        for (AccountStatus status : AccountStatus.values()) {
+            total += count(counts, role, status);
+        }
+        return total;
+    }
+
+    private static int countByStatus(Map<String, Integer> counts, AccountStatus status) {
+        int total = 0;
+        for (Role role : Role.values()) {
+            total += count(counts, role, status);
+        }
+        return total;
     }
 
     // -------------------------------
@@ -443,6 +440,160 @@ public class AdminServiceImpl implements AdminService {
 
     }
 
+    private List<String> userIds(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+
+    // Each row mapper joins one batch of users to their profiles with a single query
+    private List<UserResponse> toStudentRows(List<User> students) {
+        Map<String, Student> studentsByUserId = studentRepository.findAllByUserIdIn(userIds(students))
+            .stream()
+            .collect(Collectors.toMap(Student::getUserId, Function.identity(), (a, b) -> a));
+
+        return students.stream()
+            .map(user -> {
+                UserResponse.UserResponseBuilder builder = UserResponse.builder()
+                    .id(user.getId())
+                    .name(user.getFirstname() + " " + user.getLastname())
+                    .email(user.getEmail())
+                    .role(user.getRole())
+                    .status(user.getStatus());
+
+                Student student = studentsByUserId.get(user.getId());
+                if (student != null) {
+                    builder.student(StudentResponse.builder()
+                        .studentNumber(student.getStudentNumber())
+                        .gradeLevel(student.getGradeLevel())
+                        .build()
+                    );
+                }
+                return builder.build();
+            })
+            .toList();
+    }
+
+    private List<TutorDTO> toTutorRows(List<User> tutors) {
+        Map<String, Tutor> tutorsByUserId = tutorRepository.findAllByUserIdIn(userIds(tutors))
+            .stream()
+            .collect(Collectors.toMap(Tutor::getUserId, Function.identity(), (a, b) -> a));
+
+        return tutors.stream()
+            .filter(user -> tutorsByUserId.containsKey(user.getId())) // skip if tutor not found
+            .map(user -> {
+                Tutor tutor = tutorsByUserId.get(user.getId());
+                return TutorDTO.builder()
+                    .userId(user.getId())
+                    .firstName(user.getFirstname())
+                    .lastName(user.getLastname())
+                    .email(user.getEmail())
+                    .status(String.valueOf(user.getStatus()))
+                    .subject(tutor.getSubject())
+                    .hourlyRate(tutor.getHourlyRate())
+                    .availability(tutor.getAvailability())
+                    .description(tutor.getDescription())
+                    .lessonType(tutor.getLessonType())
+                    .profileImageUrl(tutor.getProfileImageUrl())
+                    .qualifications(tutor.getQualifications())
+                    .build();
+            })
+            .toList();
+    }
+
+    private List<UserResponse> toAdminRows(List<User> admins) {
+        Map<String, Admin> adminsByUserId = adminRepository.findAllByUserIdIn(userIds(admins))
+            .stream()
+            .collect(Collectors.toMap(Admin::getUserId, Function.identity(), (a, b) -> a));
+
+        return admins.stream()
+            .map(user -> {
+                UserResponse.UserResponseBuilder builder = UserResponse.builder()
+                    .id(user.getId())
+                    .name(user.getFirstname() + " " + user.getLastname())
+                    .email(user.getEmail())
+                    .role(user.getRole())
+                    .status(user.getStatus());
+
+                Admin admin = adminsByUserId.get(user.getId());
+                if (admin != null) {
+                    builder.admin(AdminResponse.builder()
+                        .permissions(admin.getPermissions())
+                        .build()
+                    );
+                }
+                return builder.build();
+            })
+            .toList();
+    }
+
+    private Query listingQuery(Role role, AdminListQuery listQuery) {
+        AdminListQuery q = listQuery != null ? listQuery : new AdminListQuery();
+        boolean descending = "desc".equalsIgnoreCase(q.getSort());
+
+        Criteria criteria = Criteria.where("role").is(role);
+        if (q.getStatus() != null) {
+            criteria = criteria.and("status").is(q.getStatus());
+        }
+        if (q.getCursor() != null && !q.getCursor().isBlank()) {
+            if (!ObjectId.isValid(q.getCursor())) {
+                throw new IllegalArgumentException("Invalid cursor: " + q.getCursor());
+            }
+            ObjectId cursor = new ObjectId(q.getCursor());
+            criteria = descending ? criteria.and("_id").lt(cursor) : criteria.and("_id").gt(cursor);
+        }
+        return Query.query(criteria)
+            .with(Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, "_id"));
+    }
+
+    private <T> CursorPage<T> fetchPage(Role role, AdminListQuery listQuery, Function<List<User>, List<T>> rows) {
+        int limit = pageSize(listQuery);
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<User> users = mongoTemplate.find(listingQuery(role, listQuery).limit(limit + 1), User.class);
+        boolean hasMore = users.size() > limit;
+        List<User> pageUsers = hasMore ? users.subList(0, limit) : users;
+
+        return CursorPage.<T>builder()
+            .items(rows.apply(pageUsers))
+            .nextCursor(hasMore ? pageUsers.get(pageUsers.size() - 1).getId() : null)
+            .hasMore(hasMore)
+            .build();
+    }
+
+    private <T> void streamRows(Role role, AdminListQuery listQuery, Function<List<User>, List<T>> rows,
+                                Consumer<? super T> sink) {
+        Query query = listingQuery(role, listQuery);
+        query.cursorBatchSize(STREAM_BATCH_SIZE);
+        List<User> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+            Iterator<User> it = users.iterator();
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == STREAM_BATCH_SIZE) {
+                    rows.apply(batch).forEach(sink);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            rows.apply(batch).forEach(sink);
+        }
+    }
+
+    private int pageSize(AdminListQuery listQuery) {
+        if (listQuery == null || listQuery.getLimit() == null || listQuery.getLimit() <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(listQuery.getLimit(), MAX_PAGE_SIZE);
+    }
+
+    // Every admin-driven status change goes through here so caches and counters stay in step
+    private void changeStatus(User user, AccountStatus newStatus) {
+        AccountStatus previous = user.getStatus();
+        user.setStatus(newStatus);
+        userRepository.save(user);
+        principalCache.evict(user.getEmail());
+        dashboardCounterService.recordTransition(user.getRole(), previous, newStatus);
+    }
+
     private User getUserOrThrow(String userId, Role expectedRole) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
@@ -0,0 +1,137 @@
+package com.csy.springbootauthbe.admin.service;
+
+import com.csy.springbootauthbe.admin.entity.DashboardCounters;
+import com.csy.springbootauthbe.user.entity.AccountStatus;
+import com.csy.springbootauthbe.user.entity.Role;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCounterService {
+
+    static final String USER_COUNTERS_ID = "userCounts";
+
+    private final MongoTemplate mongoTemplate;
+
+    /*
+     * The record* updates never upsert: a counters document created by one increment would hold
+     * a single bucket (or a -1) and be trusted by currentCounts(). While it does not exist they
+     * are dropped, and the first read rebuilds it from the users collection.
+     */
+
+    /** Count a newly registered user. */
+    public void recordCreated(Role role, AccountStatus status) {
+        if (role == null || status == null) return;
+        mongoTemplate.updateFirst(countersQuery(), new Update().inc(field(role, status), 1L), DashboardCounters.class);
+    }
+
+    /** Move one user from one status bucket to another in a single atomic update. */
+    public void recordTransition(Role role, AccountStatus from, AccountStatus to) {
+        if (role == null || from == to) return;
+        Update update = new Update();
+        if (from != null) update.inc(field(role, from), -1L);
+        if (to != null) update.inc(field(role, to), 1L);
+        mongoTemplate.updateFirst(countersQuery(), update, DashboardCounters.class);
+    }
+
+    /** Uncount a user whose document was removed. */
+    public void recordDeleted(Role role, AccountStatus status) {
+        if (role == null || status == null) return;
+        recordTransition(role, status, null);
+    }
+
+    /**
+     * Current counts keyed by {@link #countKey(Role, AccountStatus)}. Reads one document;
+     * the counters are only rebuilt from the users collection if they do not exist yet.
+     */
+    public Map<String, Integer> currentCounts() {
+        DashboardCounters counters = mongoTemplate.findById(USER_COUNTERS_ID, DashboardCounters.class);
+        if (counters == null || counters.getCounts() == null) {
+            return reconcileNow();
+        }
+        return flatten(counters.getCounts());
+    }
+
+    @Scheduled(fixedDelayString = "${admin.dashboard.reconcile-interval-ms:3600000}",
+               initialDelayString = "${admin.dashboard.reconcile-initial-delay-ms:60000}")
+    public void reconcile() {
+        reconcileNow();
+    }
+
+    /**
+     * Rebuilds the counters from scratch, logging every bucket that had drifted,
+     * and returns the fresh counts. Increments that land between the aggregation
+     * and the write are overwritten and corrected on the next run.
+     */
+    public Map<String, Integer> reconcileNow() {
+        DashboardCounters stored = mongoTemplate.findById(USER_COUNTERS_ID, DashboardCounters.class);
+        Map<String, Integer> storedCounts = stored != null && stored.getCounts() != null
+            ? flatten(stored.getCounts()) : Map.of();
+
+        Map<String, Map<String, Long>> nested = new HashMap<>();
+        Map<String, Integer> actual = new HashMap<>();
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.group("role", "status").count().as("count"));
+        for (Document row : mongoTemplate.aggregate(aggregation, "users", Document.class).getMappedResults()) {
+            Document key = row.get("_id", Document.class);
+            String role = key.getString("role");
+            String status = key.getString("status");
+            if (role == null || status == null) continue;
+            long count = ((Number) row.get("count")).longValue();
+            nested.computeIfAbsent(role, r -> new HashMap<>()).put(status, count);
+            actual.put(role + ":" + status, (int) count);
+        }
+
+        int drifted = 0;
+        Set<String> keys = new HashSet<>(storedCounts.keySet());
+        keys.addAll(actual.keySet());
+        for (String key : keys) {
+            int expected = actual.getOrDefault(key, 0);
+            int found = storedCounts.getOrDefault(key, 0);
+            if (expected != found) {
+                drifted++;
+                log.warn("Dashboard counter drift for {}: stored={}, actual={}", key, found, expected);
+            }
+        }
+        if (stored != null) {
+            log.info("Dashboard counters reconciled: {} bucket(s) drifted", drifted);
+        }
+
+        mongoTemplate.save(new DashboardCounters(USER_COUNTERS_ID, nested, LocalDateTime.now()));
+        return actual;
+    }
+
+    public static String countKey(Role role, AccountStatus status) {
+        return role.name() + ":" + status.name();
+    }
+
+    private static Map<String, Integer> flatten(Map<String, Map<String, Long>> nested) {
+        Map<String, Integer> flat = new HashMap<>();
+        nested.forEach((role, byStatus) -> byStatus.forEach((status, count) ->
+            flat.put(role + ":" + status, count == null ? 0 : count.intValue())));
+        return flat;
+    }
+
+    private static Query countersQuery() {
+        return Query.query(Criteria.where("_id").is(USER_COUNTERS_ID));
+    }
+
+    private static String field(Role role, AccountStatus status) {
+        return "counts." + role.name() + "." + status.name();
+    }
+}
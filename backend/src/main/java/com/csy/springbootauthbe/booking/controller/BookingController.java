@@ -5,6 +5,7 @@ import com.csy.springbootauthbe.booking.dto.BookingDTO;
 import com.csy.springbootauthbe.booking.dto.BookingRequest;
 import com.csy.springbootauthbe.booking.dto.RecentBookingResponse;
 import com.csy.springbootauthbe.booking.service.BookingService;
+import com.csy.springbootauthbe.common.idempotency.Idempotent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +20,7 @@ public class BookingController {
 
     private final BookingService bookingService;
 
+    @Idempotent
     @PostMapping
     public ResponseEntity<BookingDTO> createBooking(@RequestBody BookingRequest dto) {
         BookingDTO booking = bookingService.createBooking(dto);
@@ -57,18 +59,25 @@ public class BookingController {
         return ResponseEntity.ok(response);
     }
 
+    /**Without page/size returns every booking, as before*/
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<BookingDTO>> getBookingsForStudent(@PathVariable String studentId) {
-        List<BookingDTO> bookings = bookingService.getBookingsForStudent(studentId);
+    public ResponseEntity<List<BookingDTO>> getBookingsForStudent(@PathVariable String studentId,
+                                                                  @RequestParam(required = false) Integer page,
+                                                                  @RequestParam(required = false) Integer size) {
+        List<BookingDTO> bookings = (page == null && size == null)
+                ? bookingService.getBookingsForStudent(studentId)
+                : bookingService.getBookingsForStudent(studentId, page != null ? page : 0, size != null ? size : 20);
         return ResponseEntity.ok(bookings);
     }
 
+    @Idempotent
     @PutMapping("/{bookingId}/cancel/{currentUserId}")
     public ResponseEntity<BookingDTO> cancelBooking(@PathVariable String bookingId,@PathVariable String currentUserId ) {
         BookingDTO cancelled = bookingService.cancelBooking(bookingId,currentUserId);
         return ResponseEntity.ok(cancelled);
     }
 
+    @Idempotent
     @PutMapping("/{bookingId}/accept")
     public ResponseEntity<BookingDTO> acceptBooking(@PathVariable String bookingId) {
         BookingDTO cancelled = bookingService.acceptBooking(bookingId);
@@ -82,6 +91,7 @@ public class BookingController {
     }
 
     /**Student requests to reschedule a confirmed booking*/
+    @Idempotent
     @PostMapping("/{bookingId}/reschedule")
     public ResponseEntity<BookingDTO> requestReschedule(@PathVariable String bookingId,
                                                         @RequestBody BookingRequest newSlotRequest) {
@@ -90,6 +100,7 @@ public class BookingController {
     }
 
     /**Tutor approves a reschedule request*/
+    @Idempotent
     @PutMapping("/reschedule/{newBookingId}/approve")
     public ResponseEntity<BookingDTO> approveReschedule(@PathVariable String newBookingId) {
         BookingDTO approvedBooking = bookingService.approveReschedule(newBookingId);
@@ -3,6 +3,8 @@ package com.csy.springbootauthbe.booking.entity;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -14,6 +16,16 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Document(collection = "bookings")
+@CompoundIndexes({
+    // findByTutorIdAndDate(+StatusIn), findBookingsByTutorIdAndDateRange
+    @CompoundIndex(name = "tutor_date_start_idx", def = "{'tutorId': 1, 'date': 1, 'start': 1}"),
+    // Past/upcoming session summaries: equality on status, range + sort on date
+    @CompoundIndex(name = "tutor_status_date_idx", def = "{'tutorId': 1, 'status': 1, 'date': 1}"),
+    // Same query shapes on the typed start time once migrated
+    @CompoundIndex(name = "tutor_status_start_minute_idx", def = "{'tutorId': 1, 'status': 1, 'startMinute': 1}"),
+    // findByStudentId, sorted by date then start
+    @CompoundIndex(name = "student_date_start_idx", def = "{'studentId': 1, 'date': 1, 'start': 1}")
+})
 public class Booking {
 
     private String id;
@@ -23,8 +35,13 @@ public class Booking {
     private String start;
     private String end;
     private String lessonType;
-    private String status;
+    private BookingStatus status;
     private String originalBookingId;
+    private String slotLockId; // holder token of the SlotLocks reserved for this booking
+
+    // Typed copies of date/start/end, maintained by BookingTimeCallback
+    private Long startMinute;
+    private Long endMinute;
 
     private BigDecimal amount; // 💰 Total booking cost
 
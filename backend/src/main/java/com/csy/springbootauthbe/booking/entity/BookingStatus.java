@@ -0,0 +1,40 @@
+package com.csy.springbootauthbe.booking.entity;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lifecycle of a booking. Persisted and exposed through the API as the lowercase
+ * {@link #getCode() code} (e.g. {@code "on_hold"}), which is what existing documents hold.
+ */
+public enum BookingStatus {
+    PENDING("pending"),
+    CONFIRMED("confirmed"),
+    ON_HOLD("on_hold"),
+    RESCHEDULE_REQUESTED("reschedule_requested"),
+    CANCELLED("cancelled"),
+    COMPLETED("completed");
+
+    private static final Map<String, BookingStatus> BY_CODE = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(BookingStatus::getCode, Function.identity()));
+
+    private final String code;
+
+    BookingStatus(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public static BookingStatus fromCode(String code) {
+        BookingStatus status = BY_CODE.get(code);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown booking status: " + code);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,28 @@
+package com.csy.springbootauthbe.booking.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One reserved slot of a tutor's day. The id is {@code tutorId|date|minuteOfDay}, so
+ * Mongo's built-in unique {@code _id} index is what makes two claims on the same
+ * slot mutually exclusive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "booking_slot_locks")
+public class SlotLock {
+
+    @Id
+    private String id;
+    private String tutorId;
+    private String date;
+    private int slot;        // minute of day the slot starts at
+    private String holder;   // Booking.slotLockId of the owning booking
+    private LocalDateTime claimedAt;
+}
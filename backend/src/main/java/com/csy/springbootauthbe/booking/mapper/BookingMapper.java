@@ -3,6 +3,7 @@ package com.csy.springbootauthbe.booking.mapper;
 import com.csy.springbootauthbe.booking.dto.BookingDTO;
 import com.csy.springbootauthbe.booking.dto.BookingRequest;
 import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.booking.entity.BookingStatus;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -10,8 +11,17 @@ import org.mapstruct.Mapping;
 public interface BookingMapper {
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "slotLockId", ignore = true)
+    @Mapping(target = "startMinute", ignore = true)
+    @Mapping(target = "endMinute", ignore = true)
     @Mapping(target = "lessonType", source = "lessonType")
     Booking toEntity(BookingRequest request);
 
+    @Mapping(target = "tutorName", ignore = true)
+    @Mapping(target = "studentName", ignore = true)
     BookingDTO toDto(Booking booking);
+
+    default String toStatusCode(BookingStatus status) {
+        return status != null ? status.getCode() : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.csy.springbootauthbe.booking.repository;
+
+import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.common.schedule.SlotConflictService;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keeps {@link Booking#getStartMinute()} and {@link Booking#getEndMinute()} in step with the
+ * {@code date}/{@code start}/{@code end} strings on every save.
+ * <p>
+ * The typed values are minutes since 1970-01-01T00:00 of the booking's wall-clock time, so they
+ * compare and sort exactly like the strings without depending on a time zone.
+ */
+@Component
+public class BookingTimeCallback implements BeforeConvertCallback<Booking> {
+
+    @Override
+    public Booking onBeforeConvert(Booking booking, String collection) {
+        if (booking.getDate() == null || booking.getStart() == null || booking.getEnd() == null) {
+            return booking;
+        }
+        try {
+            booking.setStartMinute(epochMinute(booking.getDate(), booking.getStart()));
+            booking.setEndMinute(epochMinute(booking.getDate(), booking.getEnd()));
+        } catch (DateTimeParseException e) {
+            // Left unset; the migration job flags documents whose times can't be parsed
+            booking.setStartMinute(null);
+            booking.setEndMinute(null);
+        }
+        return booking;
+    }
+
+    public static long epochMinute(String date, String time) {
+        return startOfDayMinute(LocalDate.parse(date)) + SlotConflictService.minuteOfDay(time);
+    }
+
+    public static long startOfDayMinute(LocalDate date) {
+        return date.toEpochDay() * 24 * 60;
+    }
+}
@@ -11,6 +11,7 @@ public interface BookingService {
     BookingDTO createBooking(BookingRequest dto);
     List<BookingDTO> getBookingsForTutor(String tutorId, String date);
     List<BookingDTO> getBookingsForStudent(String studentId);
+    List<BookingDTO> getBookingsForStudent(String studentId, int page, int size);
     BookingDTO cancelBooking(String bookingId, String currentUserId);
     BookingDTO acceptBooking(String bookingId);
     BookingDTO getBookingById(String bookingId);
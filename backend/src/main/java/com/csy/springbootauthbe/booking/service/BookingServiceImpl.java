@@ -4,46 +4,65 @@ import com.csy.springbootauthbe.booking.dto.BookingDTO;
 import com.csy.springbootauthbe.booking.dto.BookingRequest;
 import com.csy.springbootauthbe.booking.dto.RecentBookingResponse;
 import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.booking.entity.BookingStatus;
 import com.csy.springbootauthbe.booking.mapper.BookingMapper;
 import com.csy.springbootauthbe.booking.repository.BookingRepository;
+import com.csy.springbootauthbe.booking.repository.BookingTimeCallback;
+import com.csy.springbootauthbe.common.schedule.SlotConflictService;
+import com.csy.springbootauthbe.common.unitofwork.UnitOfWorkRunner;
 import com.csy.springbootauthbe.common.utils.SanitizedLogger;
 import com.csy.springbootauthbe.notification.service.NotificationService;
-import com.csy.springbootauthbe.user.entity.User;
-import com.csy.springbootauthbe.user.repository.UserRepository;
+import com.csy.springbootauthbe.user.service.UserDisplayNameService;
 import com.csy.springbootauthbe.wallet.service.WalletService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed("booking.service")
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserDisplayNameService userDisplayNameService;
     private final BookingMapper bookingMapper;
     private final NotificationService notificationService;
     private final WalletService walletService;
+    private final SlotConflictService slotConflictService;
+    private final SlotReservationService slotReservationService;
+    private final BookingTimeMigration bookingTimeMigration;
+    private final MongoTemplate mongoTemplate;
+    private final UnitOfWorkRunner unitOfWorkRunner;
     private static final SanitizedLogger logger = SanitizedLogger.getLogger(BookingService.class);
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int SUMMARY_SIZE = 5;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Sort STUDENT_BOOKING_ORDER = Sort.by(Sort.Direction.ASC, "date", "start");
     @Override
     @Transactional
     public BookingDTO createBooking(BookingRequest dto) {
         // 1️⃣ Overlap check
-        List<Booking> existing = bookingRepository.findByTutorIdAndDate(dto.getTutorId(), dto.getDate());
-        boolean overlap = existing.stream()
-                .filter(b -> List.of("pending","confirmed","on_hold").contains(b.getStatus()))
-                .anyMatch(b -> b.getStart().compareTo(dto.getEnd()) < 0 && dto.getStart().compareTo(b.getEnd()) < 0);
+        boolean overlap = slotConflictService.bookingOverlaps(dto.getTutorId(), dto.getDate(), dto.getStart(), dto.getEnd());
         if (overlap) throw new RuntimeException("Selected slot is already booked.");
 
         // 2️⃣ Validate amount
@@ -51,16 +70,36 @@ public class BookingServiceImpl implements BookingService {
             throw new RuntimeException("Invalid booking amount");
         }
 
-        // 3️⃣ Hold student credits
-        walletService.holdCredits(dto.getStudentId(), dto.getAmount(), "BOOKING-" + UUID.randomUUID());
-
-        // 4️⃣ Save booking
-        Booking booking = bookingMapper.toEntity(dto);
-        booking.setStatus("pending");
-        booking.setAmount(dto.getAmount());
-        Booking saved = bookingRepository.save(booking);
+        // 3️⃣ Atomically claim the slot; a concurrent request for the same time fails here
+        String slotLockId = slotReservationService.reserve(dto.getTutorId(), dto.getDate(), dto.getStart(), dto.getEnd());
+
+        // The id is assigned up front so the hold's ledger reference points at this booking
+        String bookingId = new ObjectId().toHexString();
+        boolean held = false;
+        Booking saved;
+        try {
+            // 4️⃣ Hold student credits
+            walletService.holdCredits(dto.getStudentId(), dto.getAmount(), bookingId);
+            held = true;
+
+            // 5️⃣ Save booking
+            Booking booking = bookingMapper.toEntity(dto);
+            booking.setId(bookingId);
+            booking.setStatus(BookingStatus.PENDING);
+            booking.setAmount(dto.getAmount());
+            booking.setSlotLockId(slotLockId);
+            saved = bookingRepository.save(booking);
+        } catch (RuntimeException e) {
+            // Undo in reverse: give back the held credits, then free the slot
+            if (held) {
+                walletService.refundStudent(dto.getStudentId(), dto.getAmount(), bookingId);
+            }
+            slotReservationService.release(dto.getTutorId(), dto.getDate(), dto.getStart(), dto.getEnd(), slotLockId);
+            throw e;
+        }
+        slotConflictService.invalidate(saved.getTutorId(), saved.getDate());
 
-        // 5️⃣ Notify tutor
+        // 6️⃣ Notify tutor
         notificationService.createNotification(dto.getTutorId(), "booking_created", saved.getId(),
                 "A new booking for " + dto.getLessonType() + " has been created.");
 
@@ -70,38 +109,57 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public RecentBookingResponse getRecentPastBookings(String tutorId) {
-        String todayStr = LocalDate.now().format(formatter);
-        String status = "confirmed";
-        long totalCompleted = bookingRepository
-                .countByTutorIdAndStatusAndDateBefore(tutorId, status, todayStr);
-
-        List<Booking> recentPastSessions = bookingRepository
-                .findTop5ByTutorIdAndStatusAndDateBeforeOrderByDateDesc(
-                        tutorId, status, todayStr);
-
-        RecentBookingResponse response = new RecentBookingResponse();
-        response.setRecentSessions(recentPastSessions.stream().map(bookingMapper::toDto).toList());
-        response.setTotalCount(totalCompleted);
-
-        return response;
+        LocalDate today = LocalDate.now();
+        Criteria criteria = Criteria.where("tutorId").is(tutorId).and("status").is(BookingStatus.CONFIRMED.getCode());
+        if (bookingTimeMigration.isComplete()) {
+            criteria.and("startMinute").lt(BookingTimeCallback.startOfDayMinute(today));
+            return topSessionsWithCount(criteria, Sort.by(Sort.Direction.DESC, "startMinute"));
+        }
+        criteria.and("date").lt(today.format(formatter));
+        return topSessionsWithCount(criteria, Sort.by(Sort.Direction.DESC, "date"));
     }
 
     @Override
     public RecentBookingResponse getUpcomingBookings(String tutorId) {
-        String todayStr = LocalDate.now().format(formatter);
-        List<String> statuses = List.of("confirmed", "pending","on_hold");
+        LocalDate today = LocalDate.now();
+        List<String> statuses = Stream.of(BookingStatus.CONFIRMED, BookingStatus.PENDING, BookingStatus.ON_HOLD)
+                .map(BookingStatus::getCode)
+                .toList();
+        Criteria criteria = Criteria.where("tutorId").is(tutorId).and("status").in(statuses);
+        if (bookingTimeMigration.isComplete()) {
+            criteria.and("startMinute").gte(BookingTimeCallback.startOfDayMinute(today));
+            return topSessionsWithCount(criteria, Sort.by(Sort.Direction.ASC, "startMinute"));
+        }
+        criteria.and("date").gte(today.format(formatter));
+        return topSessionsWithCount(criteria, Sort.by(Sort.Direction.ASC, "date"));
+    }
 
-        List<Booking> upcomingSessions = bookingRepository
-                .findByTutorIdAndStatusInAndDateGreaterThanEqualOrderByDateAsc(
-                        tutorId, statuses, todayStr);
+    // One round trip: the first SUMMARY_SIZE matches and the total count, via $facet over the same $match.
+    // The $sort stays ahead of $facet so it can use the index; stages inside $facet cannot.
+    private RecentBookingResponse topSessionsWithCount(Criteria criteria, Sort sort) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.sort(sort),
+                Aggregation.facet(Aggregation.limit(SUMMARY_SIZE)).as("sessions")
+                        .and(Aggregation.count().as("total")).as("total")
+        );
+        Document result = mongoTemplate.aggregate(aggregation, "bookings", Document.class).getUniqueMappedResult();
+
+        List<Booking> bookings = new ArrayList<>();
+        long total = 0;
+        if (result != null) {
+            for (Document row : result.getList("sessions", Document.class, List.of())) {
+                bookings.add(mongoTemplate.getConverter().read(Booking.class, row));
+            }
+            List<Document> totals = result.getList("total", Document.class, List.of());
+            if (!totals.isEmpty()) {
+                total = ((Number) totals.get(0).get("total")).longValue();
+            }
+        }
 
-        // limit to 5 upcoming sessions
-        List<Booking> next5Sessions = upcomingSessions.stream()
-                .limit(5)
-                .toList();
         RecentBookingResponse response = new RecentBookingResponse();
-        response.setRecentSessions(next5Sessions.stream().map(bookingMapper::toDto).toList());
-        response.setTotalCount(upcomingSessions.size());
+        response.setRecentSessions(toDtosWithNames(bookings));
+        response.setTotalCount(total);
         return response;
     }
 
@@ -109,9 +167,7 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDTO> getBookingsForTutor(String tutorId, String date) {
-        return bookingRepository.findByTutorIdAndDate(tutorId, date)
-                .stream().map(bookingMapper::toDto)
-                .collect(Collectors.toList());
+        return toDtosWithNames(bookingRepository.findByTutorIdAndDate(tutorId, date));
     }
 
     public List<BookingDTO> getBookingsForTutorBetweenDates(String tutorId, String startDate, String endDate) {
@@ -119,130 +175,158 @@ public class BookingServiceImpl implements BookingService {
 
         List<Booking> bookings = bookingRepository.findBookingsByTutorIdAndDateRange(tutorId, startDate, endDate);
 
-        logger.info("Found {} bookings", bookings.size());
-        for (Booking b : bookings) {
-            logger.info("Booking: id={}, date={}, status={}", b.getId(), b.getDate(), b.getStatus());
-        }
+        // One summary line at INFO whatever the range size; per-booking lines only at DEBUG
+        logger.infoSummary("Found bookings", bookings,
+                b -> "id=" + b.getId() + " date=" + b.getDate() + " status=" + b.getStatus());
 
-        return bookings.stream()
-                .map(bookingMapper::toDto)
-                .collect(Collectors.toList());
+        return toDtosWithNames(bookings);
     }
 
 
     @Override
     public List<BookingDTO> getBookingsForStudent(String studentId) {
-        List<Booking> bookings = bookingRepository.findByStudentId(studentId);
-
-        // Sort by date ascending, then start time ascending
-        bookings.sort(Comparator
-                .comparing(Booking::getDate)                 // assuming getDate() returns java.time.LocalDate or java.util.Date
-                .thenComparing(Booking::getStart)           // assuming getStart() returns java.time.LocalTime or String "HH:mm"
-        );
+        // Sorted by date then start time in Mongo, served by student_date_start_idx
+        return toDtosWithNames(bookingRepository.findByStudentId(studentId, STUDENT_BOOKING_ORDER));
+    }
 
-        // Get all unique userIds
-        Set<String> userIds = bookings.stream()
-                .flatMap(b -> Stream.of(b.getStudentId(), b.getTutorId()))
-                .collect(Collectors.toSet());
+    @Override
+    public List<BookingDTO> getBookingsForStudent(String studentId, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSize, STUDENT_BOOKING_ORDER);
+        return toDtosWithNames(bookingRepository.findByStudentId(studentId, pageable));
+    }
 
-        Map<String, User> usersMap = userRepository.findAllById(userIds)
-                .stream()
-                .collect(Collectors.toMap(User::getId, Function.identity()));
+    // Fills studentName/tutorName from the cached, projected display names
+    private List<BookingDTO> toDtosWithNames(List<Booking> bookings) {
+        Set<String> userIds = new HashSet<>();
+        for (Booking booking : bookings) {
+            userIds.add(booking.getStudentId());
+            userIds.add(booking.getTutorId());
+        }
+        Map<String, String> names = userDisplayNameService.displayNames(userIds);
 
-        return bookings.stream().map(booking -> {
+        List<BookingDTO> dtos = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
             BookingDTO dto = bookingMapper.toDto(booking);
-
-            User student = usersMap.get(booking.getStudentId());
-            User tutor = usersMap.get(booking.getTutorId());
-
-            dto.setStudentName(student.getFirstname() + " " + student.getLastname());
-            dto.setTutorName(tutor.getFirstname() + " " + tutor.getLastname());
-
-            return dto;
-        }).collect(Collectors.toList());
+            dto.setStudentName(names.get(booking.getStudentId()));
+            dto.setTutorName(names.get(booking.getTutorId()));
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
 
+    // The status change is claimed first with one guarded findAndModify, so a retry or a concurrent
+    // accept cannot pay twice; the notification and trace entries then go through the unit of work
     @Override
-    @Transactional
     public BookingDTO acceptBooking(String bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found"));
-
-        // Only allow acceptance of pending bookings
-        if (!"pending".equals(booking.getStatus())) {
-            throw new RuntimeException("Only pending bookings can be accepted.");
-        }
-
-        booking.setStatus("confirmed");
-        Booking savedBooking = bookingRepository.save(booking);
-
-        // ✅ Release funds from student to tutor
-        if (booking.getAmount() != null && booking.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-            walletService.releaseToTutor(
-                    booking.getStudentId(),
-                    booking.getTutorId(),
-                    booking.getAmount(),
-                    booking.getId()
+        return bookingMapper.toDto(unitOfWorkRunner.run("accept_booking", uow -> {
+            // Only allow acceptance of pending bookings
+            Booking booking = claimTransition(bookingId, EnumSet.of(BookingStatus.PENDING), BookingStatus.CONFIRMED);
+            if (booking == null) {
+                requireBooking(bookingId);
+                throw new RuntimeException("Only pending bookings can be accepted.");
+            }
+            booking.setStatus(BookingStatus.CONFIRMED);
+
+            // ✅ Release funds from student to tutor
+            if (booking.getAmount() != null && booking.getAmount().compareTo(BigDecimal.ZERO) > 0) {
+                walletService.releaseToTutor(
+                        booking.getStudentId(),
+                        booking.getTutorId(),
+                        booking.getAmount(),
+                        booking.getId(),
+                        uow
+                );
+            }
+
+            // ✅ Notify student
+            notificationService.createNotification(
+                    booking.getStudentId(), // student receives notification
+                    "booking_accepted",
+                    booking.getId(),
+                    "Your booking for " + booking.getLessonType() + " has been confirmed!",
+                    uow
             );
-        }
-
-        // ✅ Notify student
-        notificationService.createNotification(
-                booking.getStudentId(), // student receives notification
-                "booking_accepted",
-                booking.getId(),
-                "Your booking for " + booking.getLessonType() + " has been confirmed!"
-        );
 
-        return bookingMapper.toDto(savedBooking);
+            return booking;
+        }));
     }
 
 
 
     // Only Tutor can accept booking
     @Override
-    @Transactional
     public BookingDTO cancelBooking(String bookingId, String currentUserId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        return bookingMapper.toDto(unitOfWorkRunner.run("cancel_booking", uow -> {
+            // Only allow cancel if not already completed or cancelled
+            Booking booking = claimTransition(bookingId,
+                    EnumSet.complementOf(EnumSet.of(BookingStatus.CANCELLED, BookingStatus.COMPLETED)),
+                    BookingStatus.CANCELLED);
+            if (booking == null) {
+                throw new RuntimeException("Booking is already " + requireBooking(bookingId).getStatus().getCode());
+            }
+
+            // Refund only if the booking was not yet accepted, judged on the status the claim replaced
+            boolean refundable = booking.getStatus() == BookingStatus.PENDING || booking.getStatus() == BookingStatus.ON_HOLD;
+            booking.setStatus(BookingStatus.CANCELLED);
+            // The slot only becomes free once the whole flow has gone through
+            uow.afterCommit(() -> {
+                slotConflictService.invalidate(booking.getTutorId(), booking.getDate());
+                slotReservationService.release(booking);
+            });
+
+            // ✅ Refund student if booking not yet accepted
+            if (refundable && booking.getAmount() != null && booking.getAmount().compareTo(BigDecimal.ZERO) > 0) {
+                walletService.refundStudent(
+                        booking.getStudentId(),
+                        booking.getAmount(),
+                        booking.getId(),
+                        uow
+                );
+            }
+
+            // ✅ Notify the other user
+            String recipientId = currentUserId.equals(booking.getStudentId())
+                    ? booking.getTutorId()
+                    : booking.getStudentId();
+
+            notificationService.createNotification(
+                    recipientId,
+                    "booking_cancelled",
+                    booking.getId(),
+                    "Booking for " + booking.getLessonType() + " has been cancelled.",
+                    uow
+            );
 
-        // Only allow cancel if not already confirmed or cancelled
-        if (List.of("cancelled", "completed").contains(booking.getStatus())) {
-            throw new RuntimeException("Booking is already " + booking.getStatus());
-        }
+            return booking;
+        }));
+    }
 
-        // Determine if refund is needed
-        boolean refundable = "pending".equals(booking.getStatus()) || "on_hold".equals(booking.getStatus());
 
-        booking.setStatus("cancelled");
-        Booking savedBooking = bookingRepository.save(booking);
 
-        // ✅ Refund student if booking not yet accepted
-        if (refundable && booking.getAmount() != null && booking.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-            walletService.refundStudent(
-                    booking.getStudentId(),
-                    booking.getAmount(),
-                    booking.getId()
-            );
+    /**
+     * Sets the booking's status to {@code to} only if it is currently one of {@code from}, in one
+     * findAndModify, applied immediately rather than queued in the unit of work. Returns the
+     * booking as it was before the change, so callers can see the status it replaced, or null
+     * when it is missing or in another state.
+     */
+    private Booking claimTransition(String bookingId, Set<BookingStatus> from, BookingStatus to) {
+        Query query = Query.query(Criteria.where("_id").is(bookingId)
+                .and("status").in(from.stream().map(BookingStatus::getCode).toList()));
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update().set("status", to.getCode()).set("updatedAt", now);
+        Booking before = mongoTemplate.findAndModify(query, update, Booking.class);
+        if (before != null) {
+            before.setUpdatedAt(now);
         }
-
-        // ✅ Notify the other user
-        String recipientId = currentUserId.equals(booking.getStudentId())
-                ? booking.getTutorId()
-                : booking.getStudentId();
-
-        notificationService.createNotification(
-                recipientId,
-                "booking_cancelled",
-                booking.getId(),
-                "Booking for " + booking.getLessonType() + " has been cancelled."
-        );
-
-        return bookingMapper.toDto(savedBooking);
+        return before;
     }
 
-
+    private Booking requireBooking(String bookingId) {
+        return bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+    }
 
     @Override
     public BookingDTO getBookingById(String bookingId) {
@@ -264,38 +348,55 @@ public class BookingServiceImpl implements BookingService {
         logger.info("Current booking fetched: {}", currentBooking);
 
         // 2. Ensure booking is confirmed
-        if (!"confirmed".equals(currentBooking.getStatus())) {
+        if (currentBooking.getStatus() != BookingStatus.CONFIRMED) {
             logger.warn("Booking status is not confirmed: {}", currentBooking.getStatus());
             throw new RuntimeException("Only confirmed bookings can be rescheduled.");
         }
 
         // 3. Check for overlap on new slot
-        List<Booking> overlapping = bookingRepository.findByTutorIdAndDate(newSlotRequest.getTutorId(), newSlotRequest.getDate());
-        logger.info("Found {} bookings on the same date for tutorId={}", overlapping.size(), newSlotRequest.getTutorId());
-
-        boolean conflict = overlapping.stream()
-                .filter(b -> "pending".equals(b.getStatus()) || "confirmed".equals(b.getStatus()) || "on_hold".equals(b.getStatus()))
-                .anyMatch(b -> b.getStart().compareTo(newSlotRequest.getEnd()) < 0 &&
-                        newSlotRequest.getStart().compareTo(b.getEnd()) < 0);
+        boolean conflict = slotConflictService.bookingOverlaps(
+                newSlotRequest.getTutorId(), newSlotRequest.getDate(), newSlotRequest.getStart(), newSlotRequest.getEnd());
 
         if (conflict) {
             logger.warn("Conflict detected for new slot: start={}, end={}", newSlotRequest.getStart(), newSlotRequest.getEnd());
             throw new RuntimeException("Selected slot is already booked.");
         }
 
-        // 4. Update current booking status to RESCHEDULE_REQUESTED
-        currentBooking.setStatus("reschedule_requested");
-        bookingRepository.save(currentBooking);
-        logger.info("Updated current booking to reschedule_requested: {}", currentBooking.getId());
+        // 4. Claim the new slot before touching the current booking
+        String slotLockId = slotReservationService.reserve(
+                newSlotRequest.getTutorId(), newSlotRequest.getDate(), newSlotRequest.getStart(), newSlotRequest.getEnd());
+
+        Booking savedNewBooking = null;
+        try {
+            // 5. Create a new booking in ON_HOLD for the requested slot
+            Booking newBooking = bookingMapper.toEntity(newSlotRequest);
+            newBooking.setStatus(BookingStatus.ON_HOLD);
+            newBooking.setOriginalBookingId(currentBooking.getId());
+            newBooking.setSlotLockId(slotLockId);
+            savedNewBooking = bookingRepository.save(newBooking);
+            logger.info("Created new on_hold booking: {}", savedNewBooking.getId());
+
+            // 6. Update current booking status to RESCHEDULE_REQUESTED
+            currentBooking.setStatus(BookingStatus.RESCHEDULE_REQUESTED);
+            bookingRepository.save(currentBooking);
+            logger.info("Updated current booking to reschedule_requested: {}", currentBooking.getId());
+        } catch (RuntimeException e) {
+            // Undo in reverse: drop the new booking if it was written, then free the new slot.
+            // The current booking keeps its slot, since it was never released.
+            if (savedNewBooking != null) {
+                bookingRepository.delete(savedNewBooking);
+            }
+            slotReservationService.release(newSlotRequest.getTutorId(), newSlotRequest.getDate(),
+                    newSlotRequest.getStart(), newSlotRequest.getEnd(), slotLockId);
+            throw e;
+        }
 
-        // 5. Create a new booking in ON_HOLD for the requested slot
-        Booking newBooking = bookingMapper.toEntity(newSlotRequest);
-        newBooking.setStatus("on_hold");
-        newBooking.setOriginalBookingId(currentBooking.getId());
-        Booking savedNewBooking = bookingRepository.save(newBooking);
-        logger.info("Created new on_hold booking: {}", savedNewBooking.getId());
+        // Both bookings are written, so the old slot can go
+        slotReservationService.release(currentBooking);
+        slotConflictService.invalidate(currentBooking.getTutorId(), currentBooking.getDate());
+        slotConflictService.invalidate(savedNewBooking.getTutorId(), savedNewBooking.getDate());
 
-        // 6. Notify tutor
+        // 7. Notify tutor
         notificationService.createNotification(
                 currentBooking.getTutorId(),
                 "reschedule_requested",
@@ -308,41 +409,45 @@ public class BookingServiceImpl implements BookingService {
     }
 
 
-    @Transactional
     public BookingDTO approveReschedule(String newBookingId) {
-        // 1. Fetch new booking
-        Booking newBooking = bookingRepository.findById(newBookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found"));
-
-        // 2. Fetch current booking
-        Booking currentBooking = bookingRepository.findById(newBooking.getOriginalBookingId())
-                .orElseThrow(() -> new RuntimeException("Original booking not found"));
-
-        // 3. Update current booking → CANCELLED
-        currentBooking.setStatus("cancelled");
-        bookingRepository.save(currentBooking);
-
-        // 4. Update new booking → CONFIRMED
-        newBooking.setStatus("confirmed");
-        Booking savedNewBooking = bookingRepository.save(newBooking);
-
-        // 5. Notify student
-        notificationService.createNotification(
-                newBooking.getStudentId(),
-                "reschedule_approved",
-                savedNewBooking.getId(),
-                "Your rescheduled booking has been confirmed!"
-        );
+        return bookingMapper.toDto(unitOfWorkRunner.run("approve_reschedule", uow -> {
+            // 1. Fetch new booking
+            Booking newBooking = bookingRepository.findById(newBookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+            // 2. Fetch current booking
+            Booking currentBooking = bookingRepository.findById(newBooking.getOriginalBookingId())
+                    .orElseThrow(() -> new RuntimeException("Original booking not found"));
+
+            // 3. Update current booking → CANCELLED
+            currentBooking.setStatus(BookingStatus.CANCELLED);
+            uow.save(currentBooking);
+            uow.afterCommit(() -> slotConflictService.invalidate(currentBooking.getTutorId(), currentBooking.getDate()));
+
+            // 4. Update new booking → CONFIRMED
+            newBooking.setStatus(BookingStatus.CONFIRMED);
+            uow.save(newBooking);
+
+            // 5. Notify student
+            notificationService.createNotification(
+                    newBooking.getStudentId(),
+                    "reschedule_approved",
+                    newBooking.getId(),
+                    "Your rescheduled booking has been confirmed!",
+                    uow
+            );
 
-        // 6. Notify tutor (optional)
-        notificationService.createNotification(
-                newBooking.getTutorId(),
-                "reschedule_approved",
-                savedNewBooking.getId(),
-                "You confirmed the rescheduled booking."
-        );
+            // 6. Notify tutor (optional)
+            notificationService.createNotification(
+                    newBooking.getTutorId(),
+                    "reschedule_approved",
+                    newBooking.getId(),
+                    "You confirmed the rescheduled booking.",
+                    uow
+            );
 
-        return bookingMapper.toDto(savedNewBooking);
+            return newBooking;
+        }));
     }
 
 
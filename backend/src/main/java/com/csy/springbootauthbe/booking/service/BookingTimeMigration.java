@@ -0,0 +1,143 @@
+package com.csy.springbootauthbe.booking.service;
+
+import com.csy.springbootauthbe.booking.repository.BookingTimeCallback;
+import com.csy.springbootauthbe.config.ThreadingConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Online backfill of {@code startMinute}/{@code endMinute} for bookings written before
+ * those fields existed. Runs in the background after startup, a chunk at a time with a
+ * pause between chunks, so the app keeps serving traffic. New writes are covered by
+ * {@link BookingTimeCallback}; readers should only rely on the typed fields once
+ * {@link #isComplete()} is true. Safe to run on several nodes at once.
+ */
+@Slf4j
+@Component
+public class BookingTimeMigration {
+
+    static final String COLLECTION = "bookings";
+    static final String FAILED_FLAG = "timeMigrationFailed";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final boolean virtualThreads;
+    private final AtomicBoolean complete = new AtomicBoolean();
+    private Object lastId;
+
+    public BookingTimeMigration(MongoTemplate mongoTemplate,
+                                @Value("${app.mongo.enabled:true}") boolean mongoEnabled,
+                                @Value("${booking.migration.enabled:true}") boolean migrationEnabled,
+                                @Value("${booking.migration.chunk-size:500}") int chunkSize,
+                                @Value("${booking.migration.pause-ms:100}") long pauseMs,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = mongoEnabled && migrationEnabled;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.virtualThreads = virtualThreads && ThreadingConfig.virtualThreadsSupported();
+    }
+
+    public boolean isComplete() {
+        return complete.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // Mostly waiting on Mongo and sleeping between chunks, so a virtual thread suits it when enabled
+        SimpleAsyncTaskExecutor worker = new SimpleAsyncTaskExecutor("booking-time-migration-");
+        worker.setDaemon(true);
+        worker.setVirtualThreads(virtualThreads);
+        worker.execute(this::runSafely);
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Booking time migration stopped: {}", e.getMessage());
+        }
+    }
+
+    /** Migrates until no unconverted documents remain; returns the number converted. */
+    long run() throws InterruptedException {
+        lastId = null;
+        long migrated = 0;
+        while (true) {
+            int converted = migrateChunk();
+            if (converted < 0) {
+                break;
+            }
+            migrated += converted;
+            if (pauseMs > 0) {
+                Thread.sleep(pauseMs);
+            }
+        }
+        complete.set(true);
+        log.info("Booking time migration complete: {} document(s) converted", migrated);
+        return migrated;
+    }
+
+    /**
+     * Converts the next chunk in {@code _id} order; returns -1 when the collection has been
+     * walked to the end. Paging on {@code _id} keeps every chunk an index range scan, where
+     * filtering on the missing field would rescan the converted prefix on each chunk.
+     */
+    int migrateChunk() {
+        Query page = new Query(lastId == null ? new Criteria() : Criteria.where("_id").gt(lastId))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(chunkSize);
+        page.fields().include("date").include("start").include("end").include("startMinute").include(FAILED_FLAG);
+        List<Document> docs = mongoTemplate.find(page, Document.class, COLLECTION);
+        if (docs.isEmpty()) {
+            return -1;
+        }
+        lastId = docs.get(docs.size() - 1).get("_id");
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+        int converted = 0;
+        int updates = 0;
+        for (Document doc : docs) {
+            if (doc.containsKey("startMinute") || Boolean.TRUE.equals(doc.get(FAILED_FLAG))) {
+                continue;
+            }
+            updates++;
+            Query byId = Query.query(Criteria.where("_id").is(doc.get("_id")));
+            try {
+                long start = BookingTimeCallback.epochMinute(doc.getString("date"), doc.getString("start"));
+                long end = BookingTimeCallback.epochMinute(doc.getString("date"), doc.getString("end"));
+                bulk.updateOne(byId, new Update().set("startMinute", start).set("endMinute", end));
+                converted++;
+            } catch (RuntimeException e) {
+                // Flag it so later runs skip it instead of failing on it again
+                log.warn("Booking {} has unparseable date/time, skipping", doc.get("_id"));
+                bulk.updateOne(byId, new Update().set(FAILED_FLAG, true));
+            }
+        }
+        if (updates > 0) {
+            bulk.execute();
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,110 @@
+package com.csy.springbootauthbe.booking.service;
+
+import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.booking.entity.SlotLock;
+import com.csy.springbootauthbe.common.schedule.SlotConflictService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claims a tutor's time as fixed-size slots before a booking is written, so two
+ * concurrent requests for overlapping times cannot both succeed. Each slot is one
+ * {@link SlotLock} document; the insert of a slot that is already held fails on the
+ * unique {@code _id}, the loser removes whatever it had already inserted and fails fast.
+ * <p>
+ * Times are widened to {@code booking.slot-lock.granularity-minutes} boundaries, so two
+ * bookings that share a slot without overlapping (e.g. 10:00-10:10 and 10:10-10:30 at
+ * 15-minute granularity) are treated as conflicting.
+ */
+@Service
+public class SlotReservationService {
+
+    private final MongoTemplate mongoTemplate;
+    private final int granularityMinutes;
+
+    public SlotReservationService(MongoTemplate mongoTemplate,
+                                  @Value("${booking.slot-lock.granularity-minutes:15}") int granularityMinutes) {
+        if (granularityMinutes <= 0) {
+            throw new IllegalArgumentException("booking.slot-lock.granularity-minutes must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.granularityMinutes = granularityMinutes;
+    }
+
+    /**
+     * Claims every slot covered by {@code [start, end)} and returns the holder token to store
+     * on the booking. Throws if any of the slots is already held.
+     */
+    public String reserve(String tutorId, String date, String start, String end) {
+        String holder = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<SlotLock> locks = new ArrayList<>();
+        for (int slot : slots(start, end)) {
+            locks.add(SlotLock.builder()
+                    .id(key(tutorId, date, slot))
+                    .tutorId(tutorId)
+                    .date(date)
+                    .slot(slot)
+                    .holder(holder)
+                    .claimedAt(now)
+                    .build());
+        }
+
+        try {
+            mongoTemplate.insert(locks, SlotLock.class);
+        } catch (DuplicateKeyException e) {
+            // Ordered insert stops at the first held slot; drop the ones we got before it
+            remove(locks.stream().map(SlotLock::getId).toList(), holder);
+            throw new RuntimeException("Selected slot is already booked.");
+        }
+        return holder;
+    }
+
+    /** Releases the slots held by a booking; a no-op for bookings created without a reservation. */
+    public void release(Booking booking) {
+        if (booking.getSlotLockId() == null) {
+            return;
+        }
+        release(booking.getTutorId(), booking.getDate(), booking.getStart(), booking.getEnd(), booking.getSlotLockId());
+    }
+
+    public void release(String tutorId, String date, String start, String end, String holder) {
+        List<String> keys = new ArrayList<>();
+        for (int slot : slots(start, end)) {
+            keys.add(key(tutorId, date, slot));
+        }
+        remove(keys, holder);
+    }
+
+    int[] slots(String start, String end) {
+        int from = SlotConflictService.minuteOfDay(start);
+        int to = SlotConflictService.minuteOfDay(end);
+        if (to <= from) {
+            throw new RuntimeException("Booking end time must be after start time.");
+        }
+        int first = (from / granularityMinutes) * granularityMinutes;
+        int count = (to - first + granularityMinutes - 1) / granularityMinutes;
+        int[] slots = new int[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = first + i * granularityMinutes;
+        }
+        return slots;
+    }
+
+    private void remove(List<String> keys, String holder) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(keys).and("holder").is(holder)), SlotLock.class);
+    }
+
+    private static String key(String tutorId, String date, int slot) {
+        return tutorId + '|' + date + '|' + slot;
+    }
+}
@@ -0,0 +1,99 @@
+package com.csy.springbootauthbe.common.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small bounded in-memory cache where every entry carries its own expiry time.
+ * Lock-free reads; when the cache is full, expired entries are purged first and
+ * then the entries closest to expiry are dropped.
+ */
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ExpiringCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /** Returns the cached value, or null if absent or expired. */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /** Caches the value until the given epoch-millis instant; ignored if already expired. */
+    public void put(K key, V value, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (value == null || expiresAtMillis <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evict(now);
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    private void evict(long now) {
+        entries.entrySet().removeIf(e -> e.getValue().expiresAtMillis <= now);
+        if (entries.size() < maxSize) {
+            return;
+        }
+        // Still full: drop roughly a tenth of the cache, soonest-to-expire first.
+        int toRemove = Math.max(1, maxSize / 10);
+        long cutoff = entries.values().stream()
+                .mapToLong(e -> e.expiresAtMillis)
+                .sorted()
+                .skip(toRemove - 1L)
+                .findFirst()
+                .orElse(Long.MAX_VALUE);
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext() && toRemove > 0) {
+            if (it.next().getValue().expiresAtMillis <= cutoff) {
+                it.remove();
+                toRemove--;
+            }
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+}
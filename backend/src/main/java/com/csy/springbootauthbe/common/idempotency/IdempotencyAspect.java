@@ -0,0 +1,115 @@
+package com.csy.springbootauthbe.common.idempotency;
+
+import com.csy.springbootauthbe.common.wrapper.UserDetailsWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Applies {@link Idempotent}: claims the request's key before the controller method runs,
+ * stores its response afterwards, and answers retries from the stored response with an
+ * {@value #REPLAYED_HEADER} header. A method that throws releases the key, since
+ * the error response is produced later by the exception handlers and is not stored.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Around("@annotation(com.csy.springbootauthbe.common.idempotency.Idempotent)")
+    public Object around(ProceedingJoinPoint pjp) throws Throwable {
+        String key = currentKey();
+        String userId = currentUserId();
+        if (key == null || userId == null) {
+            return pjp.proceed();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        IdempotencyRecord claim = idempotencyService.claim(userId, key, fingerprint(pjp));
+        if (IdempotencyRecord.COMPLETED.equals(claim.getStatus())) {
+            return replay(claim);
+        }
+
+        Object result;
+        try {
+            result = pjp.proceed();
+        } catch (Throwable t) {
+            idempotencyService.release(claim);
+            throw t;
+        }
+        if (result instanceof ResponseEntity<?> response) {
+            idempotencyService.complete(claim, response.getStatusCode().value(),
+                    response.hasBody() ? objectMapper.writeValueAsString(response.getBody()) : null);
+        } else {
+            idempotencyService.release(claim);
+        }
+        return result;
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord stored) throws JsonProcessingException {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(stored.getResponseStatus())
+                .header(REPLAYED_HEADER, "true");
+        return stored.getResponseBody() == null
+                ? response.build()
+                : response.body(objectMapper.readTree(stored.getResponseBody()));
+    }
+
+    /** Endpoint plus a hash of its arguments, so one key cannot be replayed against a different request. */
+    private String fingerprint(ProceedingJoinPoint pjp) throws JsonProcessingException, NoSuchAlgorithmException {
+        List<Object> args = new ArrayList<>();
+        for (Object arg : pjp.getArgs()) {
+            if (!(arg instanceof ServletRequest) && !(arg instanceof ServletResponse)) {
+                args.add(arg);
+            }
+        }
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(args));
+        return pjp.getSignature().toShortString() + ":" + HexFormat.of().formatHex(digest);
+    }
+
+    private static String currentKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servlet)) {
+            return null;
+        }
+        String key = servlet.getRequest().getHeader(HEADER);
+        return key == null || key.isBlank() ? null : key.trim();
+    }
+
+    private static String currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            return null;
+        }
+        if (auth.getPrincipal() instanceof UserDetailsWrapper wrapper) {
+            return wrapper.getUser().getId();
+        }
+        return auth.getName();
+    }
+}
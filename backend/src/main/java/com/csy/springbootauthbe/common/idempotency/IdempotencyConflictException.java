@@ -0,0 +1,8 @@
+package com.csy.springbootauthbe.common.idempotency;
+
+/** A key that is still being processed, or was used for a different request. Mapped to 409. */
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,41 @@
+package com.csy.springbootauthbe.common.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One idempotency key of one user. Inserted as IN_PROGRESS before the request runs, so the
+ * unique index is what stops a concurrent duplicate, and completed with the response that
+ * later retries get back. Removed by the TTL index once {@code expiresAt} has passed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "idempotency_keys")
+@CompoundIndex(name = "user_key_idx", def = "{'userId': 1, 'key': 1}", unique = true)
+public class IdempotencyRecord {
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    private String id;
+    private String userId;
+    private String key;
+    private String fingerprint; // endpoint + hash of the arguments, so a key cannot be reused for another request
+    private String status;
+    private Integer responseStatus;
+    private String responseBody; // JSON
+    private LocalDateTime createdAt;
+    @Indexed(name = "expires_at_ttl", expireAfter = "0s")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,95 @@
+package com.csy.springbootauthbe.common.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Claims and completes idempotency keys. A first use costs one insert against the unique
+ * (userId, key) index plus one update by id when the response is stored; the record is
+ * only read back when the insert collides, i.e. on an actual retry.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.idempotency.ttl-ms:86400000}")
+    private long ttlMs = 86_400_000;
+
+    // A claim older than this was left by a request that never finished (e.g. a crashed node) and may be taken over
+    @Value("${app.idempotency.lock-timeout-ms:60000}")
+    private long lockTimeoutMs = 60_000;
+
+    /**
+     * Claims {@code key} for a new request, or returns the completed record of an earlier
+     * one. The returned record is IN_PROGRESS when the caller now owns the key.
+     *
+     * @throws IdempotencyConflictException if the key is still being processed or was used for another request
+     */
+    public IdempotencyRecord claim(String userId, String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord claim = IdempotencyRecord.builder()
+                .userId(userId)
+                .key(key)
+                .fingerprint(fingerprint)
+                .status(IdempotencyRecord.IN_PROGRESS)
+                .createdAt(now)
+                .expiresAt(now.plusNanos(ttlMs * 1_000_000))
+                .build();
+        try {
+            return mongoTemplate.insert(claim);
+        } catch (DuplicateKeyException e) {
+            return existing(userId, key, fingerprint, now);
+        }
+    }
+
+    /** Stores the response for replay. */
+    public void complete(IdempotencyRecord claim, int responseStatus, String responseBody) {
+        Update update = new Update()
+                .set("status", IdempotencyRecord.COMPLETED)
+                .set("responseStatus", responseStatus)
+                .set("responseBody", responseBody);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(claim.getId())), update, IdempotencyRecord.class);
+    }
+
+    /** Gives the key up after a failed request, so a retry runs it again. */
+    public void release(IdempotencyRecord claim) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(claim.getId())
+                .and("status").is(IdempotencyRecord.IN_PROGRESS)), IdempotencyRecord.class);
+    }
+
+    private IdempotencyRecord existing(String userId, String key, String fingerprint, LocalDateTime now) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("key").is(key));
+        IdempotencyRecord found = mongoTemplate.findOne(query, IdempotencyRecord.class);
+        if (found == null) {
+            // Expired and removed between the insert and this read; the caller can simply retry
+            throw new IdempotencyConflictException("Idempotency key is being reset, retry the request");
+        }
+        if (!fingerprint.equals(found.getFingerprint())) {
+            throw new IdempotencyConflictException("Idempotency key was already used for a different request");
+        }
+        if (IdempotencyRecord.COMPLETED.equals(found.getStatus())) {
+            return found;
+        }
+        // Still in progress: only take it over if its owner has evidently gone away
+        Query stale = Query.query(Criteria.where("_id").is(found.getId())
+                .and("status").is(IdempotencyRecord.IN_PROGRESS)
+                .and("createdAt").lt(now.minusNanos(lockTimeoutMs * 1_000_000)));
+        IdempotencyRecord takenOver = mongoTemplate.findAndModify(stale, new Update().set("createdAt", now),
+                FindAndModifyOptions.options().returnNew(true), IdempotencyRecord.class);
+        if (takenOver == null) {
+            throw new IdempotencyConflictException("A request with this idempotency key is still in progress");
+        }
+        return takenOver;
+    }
+}
@@ -0,0 +1,17 @@
+package com.csy.springbootauthbe.common.idempotency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller method returning {@code ResponseEntity} as safe to retry with an
+ * {@value IdempotencyAspect#HEADER} header: a repeated key from the same user gets the
+ * stored response instead of running the method again. Requests without the header are
+ * handled as before.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -0,0 +1,101 @@
+package com.csy.springbootauthbe.common.schedule;
+
+import java.util.Arrays;
+
+/**
+ * Immutable index over half-open intervals {@code [start, end)} that answers
+ * "does anything overlap this range?" in O(log n).
+ * <p>
+ * Intervals are sorted by start and paired with a running maximum of their ends.
+ * An interval overlaps {@code [qs, qe)} iff it starts before {@code qe} and ends after
+ * {@code qs}; the intervals starting before {@code qe} form a prefix of the sorted
+ * order, so a binary search plus one prefix-max lookup is enough.
+ */
+public final class IntervalIndex {
+
+    private static final IntervalIndex EMPTY = new IntervalIndex(new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] maxEnds;
+
+    private IntervalIndex(long[] starts, long[] maxEnds) {
+        this.starts = starts;
+        this.maxEnds = maxEnds;
+    }
+
+    public static IntervalIndex empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean overlaps(long start, long end) {
+        int last = lastStartingBefore(end);
+        return last >= 0 && maxEnds[last] > start;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    // Index of the last interval whose start is < bound, or -1
+    private int lastStartingBefore(long bound) {
+        int lo = 0;
+        int hi = starts.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < bound) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    public static final class Builder {
+
+        private long[] starts = new long[8];
+        private long[] ends = new long[8];
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder add(long start, long end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+            return this;
+        }
+
+        public IntervalIndex build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+
+            long[] sortedStarts = new long[size];
+            long[] maxEnds = new long[size];
+            long runningMax = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                sortedStarts[i] = starts[order[i]];
+                runningMax = Math.max(runningMax, ends[order[i]]);
+                maxEnds[i] = runningMax;
+            }
+            return new IntervalIndex(sortedStarts, maxEnds);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.csy.springbootauthbe.common.schedule;
+
+import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.booking.entity.BookingStatus;
+import com.csy.springbootauthbe.booking.repository.BookingRepository;
+import com.csy.springbootauthbe.common.cache.ExpiringCache;
+import com.csy.springbootauthbe.event.dto.EventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Overlap checks for tutor schedules, shared by bookings and events.
+ * <p>
+ * Booking times are converted to minute-of-day and event times to epoch-second,
+ * then indexed in an {@link IntervalIndex}. Booking indexes are kept per tutor-day
+ * for {@code booking.slot-index.ttl-ms} (0 = rebuild on every check) and are evicted
+ * by {@link #invalidate(String, String)} whenever this node writes a booking for that day.
+ */
+@Service
+public class SlotConflictService {
+
+    /** Statuses that occupy a tutor's slot. */
+    public static final List<BookingStatus> ACTIVE_BOOKING_STATUSES =
+            List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED, BookingStatus.ON_HOLD);
+
+    private final BookingRepository bookingRepository;
+    private final ExpiringCache<String, IntervalIndex> bookingIndexes;
+    private final long ttlMs;
+
+    public SlotConflictService(BookingRepository bookingRepository,
+                               @Value("${booking.slot-index.ttl-ms:0}") long ttlMs,
+                               @Value("${booking.slot-index.max-size:10000}") int maxSize) {
+        this.bookingRepository = bookingRepository;
+        this.ttlMs = ttlMs;
+        this.bookingIndexes = new ExpiringCache<>(maxSize);
+    }
+
+    public boolean bookingOverlaps(String tutorId, String date, String start, String end) {
+        return bookingIndex(tutorId, date).overlaps(minuteOfDay(start), minuteOfDay(end));
+    }
+
+    public void invalidate(String tutorId, String date) {
+        bookingIndexes.invalidate(key(tutorId, date));
+    }
+
+    public IntervalIndex bookingIndex(String tutorId, String date) {
+        String key = key(tutorId, date);
+        IntervalIndex index = bookingIndexes.get(key);
+        if (index == null) {
+            index = indexBookings(bookingRepository.findByTutorIdAndDateAndStatusIn(tutorId, date, ACTIVE_BOOKING_STATUSES));
+            bookingIndexes.put(key, index, System.currentTimeMillis() + ttlMs);
+        }
+        return index;
+    }
+
+    public static IntervalIndex indexBookings(Collection<Booking> bookings) {
+        IntervalIndex.Builder builder = IntervalIndex.builder();
+        for (Booking b : bookings) {
+            builder.add(minuteOfDay(b.getStart()), minuteOfDay(b.getEnd()));
+        }
+        return builder.build();
+    }
+
+    public boolean eventOverlaps(Collection<EventDTO> events, LocalDateTime start, LocalDateTime end) {
+        IntervalIndex.Builder builder = IntervalIndex.builder();
+        for (EventDTO e : events) {
+            builder.add(epochSecond(LocalDateTime.parse(e.getStart())), epochSecond(LocalDateTime.parse(e.getEnd())));
+        }
+        return builder.build().overlaps(epochSecond(start), epochSecond(end));
+    }
+
+    /** Parses {@code HH:mm} (optionally with seconds) into minutes since midnight. */
+    public static int minuteOfDay(String time) {
+        if (time.length() >= 5 && time.charAt(2) == ':'
+                && isDigit(time.charAt(0)) && isDigit(time.charAt(1))
+                && isDigit(time.charAt(3)) && isDigit(time.charAt(4))) {
+            int hours = (time.charAt(0) - '0') * 10 + (time.charAt(1) - '0');
+            int minutes = (time.charAt(3) - '0') * 10 + (time.charAt(4) - '0');
+            if ((hours < 24 && minutes < 60) || (hours == 24 && minutes == 0)) {
+                return hours * 60 + minutes; // 24:00 is accepted as end of day
+            }
+        }
+        // Anything unusual goes through the strict parser so bad input still fails loudly
+        LocalTime parsed = LocalTime.parse(time);
+        return parsed.getHour() * 60 + parsed.getMinute();
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static String key(String tutorId, String date) {
+        return tutorId + '|' + date;
+    }
+}
@@ -1,6 +1,8 @@
 package com.csy.springbootauthbe.common.sequence;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -8,22 +10,51 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out sequence numbers backed by the {@code counters} collection.
+ * <p>
+ * With a block size of 1 (the default) every value costs one {@code findAndModify}.
+ * A larger block size, set per sequence via {@code sequence.block-size.<name>}, switches
+ * that sequence to hi/lo allocation: each node reserves {@code blockSize} values in one
+ * round trip and serves them from memory. Values stay unique across nodes because every
+ * reservation advances the shared counter, but they are no longer gap-free or strictly
+ * ordered across nodes, and unused values in a block are lost on restart.
+ */
 @Service
 public class SequenceGeneratorService {
 
     @Autowired
     private MongoOperations mongoOperations;
 
+    @Autowired
+    private Environment environment;
+
+    @Value("${sequence.block-size.default:1}")
+    private int defaultBlockSize = 1;
+
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ReentrantLock> refillLocks = new ConcurrentHashMap<>();
+
     public long getNextSequence(String seqName) {
-        Counter counter = mongoOperations.findAndModify(
-                Query.query(Criteria.where("_id").is(seqName)),
-                new Update().inc("seq", 1),
-                FindAndModifyOptions.options().returnNew(true).upsert(true), // ← upsert creates it if missing
-                Counter.class
-        );
+        int blockSize = blockSize(seqName);
+        if (blockSize <= 1) {
+            return reserve(seqName, 1);
+        }
 
-        // if somehow counter is still null, return 1
-        return counter != null ? counter.getSeq() : 1;
+        while (true) {
+            Block block = blocks.get(seqName);
+            if (block != null) {
+                long value = block.next.getAndIncrement();
+                if (value <= block.hi) {
+                    return value;
+                }
+            }
+            refill(seqName, block, blockSize);
+        }
     }
 
     public String getNextStudentId() {
@@ -36,6 +67,10 @@ public class SequenceGeneratorService {
     }
 
     public long peekSequence(String seqName) {
+        Block block = blocks.get(seqName);
+        if (block != null && block.next.get() <= block.hi) {
+            return block.next.get();
+        }
         Counter counter = mongoOperations.findOne(
                 Query.query(Criteria.where("_id").is(seqName)),
                 Counter.class
@@ -48,5 +83,47 @@ public class SequenceGeneratorService {
         return String.format("S%02d", seq);
     }
 
-}
+    int blockSize(String seqName) {
+        Integer configured = environment.getProperty("sequence.block-size." + seqName, Integer.class);
+        return configured != null ? configured : defaultBlockSize;
+    }
 
+    // Only one thread per sequence goes to Mongo; the others wait and pick up the new block.
+    // A ReentrantLock rather than synchronized so waiting virtual threads don't pin their carrier.
+    private void refill(String seqName, Block exhausted, int blockSize) {
+        ReentrantLock lock = refillLocks.computeIfAbsent(seqName, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (blocks.get(seqName) != exhausted) {
+                return; // another thread already refilled
+            }
+            long hi = reserve(seqName, blockSize);
+            blocks.put(seqName, new Block(hi - blockSize + 1, hi));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Advances the shared counter by {@code count} and returns the new (inclusive) upper bound. */
+    private long reserve(String seqName, int count) {
+        Counter counter = mongoOperations.findAndModify(
+                Query.query(Criteria.where("_id").is(seqName)),
+                new Update().inc("seq", count),
+                FindAndModifyOptions.options().returnNew(true).upsert(true), // ← upsert creates it if missing
+                Counter.class
+        );
+
+        // if somehow counter is still null, return the first value of the block
+        return counter != null ? counter.getSeq() : count;
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long hi;
+
+        private Block(long lo, long hi) {
+            this.next = new AtomicLong(lo);
+            this.hi = hi;
+        }
+    }
+}
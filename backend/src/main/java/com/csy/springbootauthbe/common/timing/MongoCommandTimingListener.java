@@ -0,0 +1,29 @@
+package com.csy.springbootauthbe.common.timing;
+
+import com.csy.springbootauthbe.common.unitofwork.FlowRoundTrips;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds every Mongo command's duration to the current request. The sync driver calls
+ * listeners on the thread that ran the command, so this covers repositories and
+ * MongoTemplate alike. Also counts the commands of unit-of-work flows for their
+ * round-trip metric.
+ */
+public class MongoCommandTimingListener implements CommandListener {
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        RequestTimings.recordDb(event.getElapsedTime(TimeUnit.NANOSECONDS));
+        FlowRoundTrips.record();
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        RequestTimings.recordDb(event.getElapsedTime(TimeUnit.NANOSECONDS));
+        FlowRoundTrips.record();
+    }
+}
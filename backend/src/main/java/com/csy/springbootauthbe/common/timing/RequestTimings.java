@@ -0,0 +1,113 @@
+package com.csy.springbootauthbe.common.timing;
+
+import java.util.Locale;
+
+/**
+ * Per-request time breakdown, bound to the request thread by {@link #start()} in
+ * JWTAuthenticationFilter and cleared by {@link #clear()} when the request ends.
+ * <p>
+ * Every recording method is a no-op when no request is being timed (startup code,
+ * scheduled jobs, background threads), so callers never need to check.
+ * Segments can overlap: controller time includes the db and s3 time spent inside it.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long authNanos;
+    private long dbNanos;
+    private int dbCalls;
+    private long s3Nanos;
+    private int s3Calls;
+    private long handlerStartNanos;
+    private long handlerNanos = -1;
+
+    private RequestTimings() {
+    }
+
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /** The collector for the request on this thread, or null outside a timed request. */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void recordAuth(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) timings.authNanos += nanos;
+    }
+
+    public static void recordDb(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.dbNanos += nanos;
+            timings.dbCalls++;
+        }
+    }
+
+    public static void recordS3(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.s3Nanos += nanos;
+            timings.s3Calls++;
+        }
+    }
+
+    public void handlerStarted() {
+        handlerStartNanos = System.nanoTime();
+    }
+
+    /** Stops the controller clock; only the first call counts, so body-write and completion can both call it. */
+    public void handlerFinished() {
+        if (handlerStartNanos != 0 && handlerNanos < 0) {
+            handlerNanos = System.nanoTime() - handlerStartNanos;
+        }
+    }
+
+    /** Mongo commands, i.e. round trips, run by this request so far. */
+    public int dbCalls() {
+        return dbCalls;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /** Value for the Server-Timing response header, durations in milliseconds. */
+    public String serverTimingHeader() {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("auth;dur=").append(ms(authNanos));
+        sb.append(", db;dur=").append(ms(dbNanos)).append(";desc=\"").append(dbCalls).append(" calls\"");
+        if (s3Calls > 0) {
+            sb.append(", s3;dur=").append(ms(s3Nanos)).append(";desc=\"").append(s3Calls).append(" calls\"");
+        }
+        if (handlerNanos >= 0) {
+            sb.append(", app;dur=").append(ms(handlerNanos));
+        }
+        sb.append(", total;dur=").append(ms(elapsedNanos()));
+        return sb.toString();
+    }
+
+    /** key=value fields for the slow-request log line. */
+    public String toLogFields() {
+        long total = elapsedNanos();
+        return "total_ms=" + ms(total)
+                + " auth_ms=" + ms(authNanos)
+                + " db_ms=" + ms(dbNanos) + " db_calls=" + dbCalls
+                + " s3_ms=" + ms(s3Nanos) + " s3_calls=" + s3Calls
+                + " controller_ms=" + ms(Math.max(handlerNanos, 0));
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
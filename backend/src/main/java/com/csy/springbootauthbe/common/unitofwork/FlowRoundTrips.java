@@ -0,0 +1,44 @@
+package com.csy.springbootauthbe.common.unitofwork;
+
+/**
+ * Counts the Mongo commands run on this thread while a {@link UnitOfWorkRunner} flow is
+ * open. Fed by MongoCommandTimingListener, independently of request timing, so flows run
+ * by scheduled jobs or with {@code app.request-timing.enabled=false} are counted too.
+ * A nested flow's commands also count towards the enclosing one.
+ */
+public final class FlowRoundTrips {
+
+    private static final ThreadLocal<FlowRoundTrips> CURRENT = new ThreadLocal<>();
+
+    private final FlowRoundTrips enclosing;
+    private int count;
+
+    private FlowRoundTrips(FlowRoundTrips enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    static FlowRoundTrips open() {
+        FlowRoundTrips counter = new FlowRoundTrips(CURRENT.get());
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    /** Called for every Mongo command; a no-op outside a flow. */
+    public static void record() {
+        FlowRoundTrips counter = CURRENT.get();
+        if (counter != null) counter.count++;
+    }
+
+    void close() {
+        if (enclosing != null) {
+            enclosing.count += count;
+            CURRENT.set(enclosing);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    int count() {
+        return count;
+    }
+}
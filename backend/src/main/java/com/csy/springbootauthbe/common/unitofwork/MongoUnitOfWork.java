@@ -0,0 +1,126 @@
+package com.csy.springbootauthbe.common.unitofwork;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Collects the plain inserts and saves of one flow and writes them with one ordered
+ * {@code bulkWrite} per collection, in the order the collections were first touched.
+ * Obtained from {@link UnitOfWorkRunner#run}, which flushes it and then runs the
+ * {@link #afterCommit} callbacks; not thread-safe.
+ * <p>
+ * Writes whose result the flow needs straight away (guarded findAndModify, reads) do not
+ * go through here. Ids are assigned on registration, so a registered entity can be
+ * referenced before it is written.
+ * <p>
+ * Outside a transaction ({@link #isTransactional()} false) those immediate writes are
+ * already durable when the flush runs, and a failed flush does not undo them. Writes that
+ * must never be separated from an immediate one, such as a ledger entry from the balance
+ * change it records, should then be made directly instead of being registered here.
+ */
+public class MongoUnitOfWork {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean transactional;
+    private final Map<String, PendingWrites> writes = new LinkedHashMap<>();
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private int bulkWrites;
+
+    MongoUnitOfWork(MongoTemplate mongoTemplate, boolean transactional) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactional = transactional;
+    }
+
+    /** True when the flow runs in one multi-document transaction, so registered and immediate writes commit together. */
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    /** Registers a new document, assigning its id now if it has none. */
+    public <T> T insert(T entity) {
+        MongoPersistentEntity<?> meta = meta(entity);
+        assignId(meta, entity);
+        pending(meta).add(ops -> ops.insert(entity));
+        return entity;
+    }
+
+    /** Registers a full replace of an existing document, or an insert when it has no id yet. */
+    public <T> T save(T entity) {
+        MongoPersistentEntity<?> meta = meta(entity);
+        Object id = meta.getIdentifierAccessor(entity).getIdentifier();
+        if (id == null) {
+            return insert(entity);
+        }
+        Query byId = Query.query(Criteria.where("_id").is(id));
+        pending(meta).add(ops -> ops.replaceOne(byId, entity, FindAndReplaceOptions.options().upsert()));
+        return entity;
+    }
+
+    /** Runs once the writes are durable, e.g. SSE pushes and cache invalidation. Skipped if the flow fails. */
+    public void afterCommit(Runnable callback) {
+        afterCommit.add(callback);
+    }
+
+    /** Bulk writes issued by {@link #flush()}, one per collection. */
+    public int bulkWrites() {
+        return bulkWrites;
+    }
+
+    void flush() {
+        for (Map.Entry<String, PendingWrites> entry : writes.entrySet()) {
+            PendingWrites pending = entry.getValue();
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, pending.entityType, entry.getKey());
+            pending.models.forEach(model -> model.accept(ops));
+            ops.execute();
+            bulkWrites++;
+        }
+        writes.clear();
+    }
+
+    void runAfterCommit() {
+        afterCommit.forEach(Runnable::run);
+    }
+
+    private MongoPersistentEntity<?> meta(Object entity) {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(entity.getClass());
+    }
+
+    private List<Consumer<BulkOperations>> pending(MongoPersistentEntity<?> meta) {
+        return writes.computeIfAbsent(meta.getCollection(), c -> new PendingWrites(meta.getType())).models;
+    }
+
+    private static void assignId(MongoPersistentEntity<?> meta, Object entity) {
+        MongoPersistentProperty idProperty = meta.getIdProperty();
+        if (idProperty == null) {
+            return;
+        }
+        PersistentPropertyAccessor<Object> accessor = meta.getPropertyAccessor(entity);
+        if (accessor.getProperty(idProperty) == null) {
+            // What the driver would have generated; String ids holding an ObjectId hex are stored as ObjectId
+            ObjectId id = new ObjectId();
+            accessor.setProperty(idProperty, idProperty.getType() == String.class ? id.toHexString() : id);
+        }
+    }
+
+    private static final class PendingWrites {
+        private final Class<?> entityType;
+        private final List<Consumer<BulkOperations>> models = new ArrayList<>();
+
+        private PendingWrites(Class<?> entityType) {
+            this.entityType = entityType;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.csy.springbootauthbe.common.unitofwork;
+
+import com.mongodb.MongoException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Function;
+
+/**
+ * Runs a multi-document flow against a {@link MongoUnitOfWork}. The writes it collects are
+ * flushed per collection with {@code bulkWrite}; when the deployment supports transactions
+ * (replica set or sharded cluster), the whole flow, including its immediate reads and
+ * findAndModify calls, also runs in one multi-document transaction.
+ * <p>
+ * {@code app.mongo.unit-of-work.mode}: {@code auto} (default, transaction if the server
+ * supports it), {@code transaction} or {@code bulk}. The Mongo round trips of each flow are
+ * counted by {@link FlowRoundTrips} and recorded in the {@value #ROUND_TRIPS_METRIC} summary,
+ * tagged with flow and mode, whether or not the flow runs inside a timed request.
+ */
+@Slf4j
+@Component
+public class UnitOfWorkRunner {
+
+    public static final String ROUND_TRIPS_METRIC = "mongo.flow.round.trips";
+    private static final int MAX_TRANSACTION_ATTEMPTS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final String mode;
+    private volatile TransactionTemplate transactionTemplate;
+    private volatile Boolean transactional; // resolved on first use
+
+    // Optional so the runner can still be constructed directly; falls back to the global registry
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    public UnitOfWorkRunner(MongoTemplate mongoTemplate,
+                            @Value("${app.mongo.unit-of-work.mode:auto}") String mode) {
+        this.mongoTemplate = mongoTemplate;
+        this.mode = mode;
+    }
+
+    public <T> T run(String flow, Function<MongoUnitOfWork, T> body) {
+        boolean inTransaction = transactional();
+        FlowRoundTrips roundTrips = FlowRoundTrips.open();
+        Completed<T> completed;
+        try {
+            completed = inTransaction ? runInTransaction(body) : runBulk(body, false);
+        } finally {
+            roundTrips.close();
+        }
+        completed.work().runAfterCommit();
+
+        DistributionSummary.builder(ROUND_TRIPS_METRIC)
+                .description("Mongo round trips per multi-document flow")
+                .tag("flow", flow)
+                .tag("mode", inTransaction ? "transaction" : "bulk")
+                .register(registry())
+                .record(roundTrips.count());
+        log.debug("Flow {} took {} Mongo round trips ({} bulk writes)", flow, roundTrips.count(), completed.work().bulkWrites());
+        return completed.result();
+    }
+
+    private <T> Completed<T> runBulk(Function<MongoUnitOfWork, T> body, boolean inTransaction) {
+        MongoUnitOfWork work = new MongoUnitOfWork(mongoTemplate, inTransaction);
+        T result = body.apply(work);
+        work.flush();
+        return new Completed<>(work, result);
+    }
+
+    private <T> Completed<T> runInTransaction(Function<MongoUnitOfWork, T> body) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate().execute(status -> runBulk(body, true));
+            } catch (RuntimeException e) {
+                // Write conflicts with a concurrent transaction are safe to retry from the start
+                if (attempt >= MAX_TRANSACTION_ATTEMPTS || !isTransient(e)) {
+                    throw e;
+                }
+                log.debug("Retrying transient transaction failure ({}/{}): {}", attempt, MAX_TRANSACTION_ATTEMPTS, e.getMessage());
+            }
+        }
+    }
+
+    private boolean transactional() {
+        Boolean resolved = transactional;
+        if (resolved == null) {
+            resolved = switch (mode) {
+                case "transaction" -> true;
+                case "bulk" -> false;
+                default -> supportsTransactions();
+            };
+            transactional = resolved;
+            log.info("Multi-document flows use {}", resolved ? "transactions" : "per-collection bulk writes");
+        }
+        return resolved;
+    }
+
+    private boolean supportsTransactions() {
+        try {
+            Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+            return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+        } catch (RuntimeException e) {
+            log.warn("Could not determine the Mongo topology, falling back to bulk writes: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        TransactionTemplate template = transactionTemplate;
+        if (template == null) {
+            template = new TransactionTemplate(new MongoTransactionManager(mongoTemplate.getMongoDatabaseFactory()));
+            transactionTemplate = template;
+        }
+        return template;
+    }
+
+    private static boolean isTransient(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof MongoException mongo && mongo.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MeterRegistry registry() {
+        return meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+    }
+
+    private record Completed<T>(MongoUnitOfWork work, T result) {
+    }
+}
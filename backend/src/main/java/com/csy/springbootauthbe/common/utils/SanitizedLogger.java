@@ -3,40 +3,114 @@ package com.csy.springbootauthbe.common.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 public class SanitizedLogger {
 
+    // Defaults for infoRateLimited: at most this many lines per message template per window
+    private static final int DEFAULT_MAX_PER_WINDOW = 10;
+    private static final long DEFAULT_WINDOW_MS = 1000;
+    // How many items infoSummary prints before eliding the rest
+    private static final int SUMMARY_SAMPLE_SIZE = 3;
+
+    // Compiled once; String.replaceAll would recompile each of these on every call
+    private static final Pattern PASSWORD = Pattern.compile("(?i)password\\s*[:=]\\s*[^\\s,]+");
+    private static final Pattern TOKEN = Pattern.compile("(?i)token\\s*[:=]\\s*[^\\s,]+");
+    private static final Pattern AUTHORIZATION = Pattern.compile("(?i)authorization\\s*[:=]\\s*[^\\s,]+");
+    private static final Pattern CONTROL_CHARS = Pattern.compile("[\\r\\n\\t\\f\\u000B\\u0000-\\u001F\\u007F]+");
+    private static final Object[] NO_ARGS = new Object[0];
+
     private final Logger logger;
+    private final int maxPerWindow;
+    private final long windowMs;
+    private final ConcurrentHashMap<String, RateWindow> rateWindows = new ConcurrentHashMap<>();
 
-    private SanitizedLogger(Class<?> clazz) {
+    private SanitizedLogger(Class<?> clazz, int maxPerWindow, long windowMs) {
         this.logger = LoggerFactory.getLogger(clazz);
+        this.maxPerWindow = maxPerWindow;
+        this.windowMs = windowMs;
     }
 
     public static SanitizedLogger getLogger(Class<?> clazz) {
-        return new SanitizedLogger(clazz);
+        return new SanitizedLogger(clazz, DEFAULT_MAX_PER_WINDOW, DEFAULT_WINDOW_MS);
+    }
+
+    /** Logger whose {@link #infoRateLimited} allows {@code maxPerWindow} lines per template per {@code windowMs}. */
+    public static SanitizedLogger getLogger(Class<?> clazz, int maxPerWindow, long windowMs) {
+        return new SanitizedLogger(clazz, maxPerWindow, windowMs);
     }
 
     // Core sanitizer
-    private String sanitize(String message) {
+    public static String sanitize(String message) {
         if (message == null) return null;
+        // Most log text has nothing to mask; skip the regex passes entirely
+        if (!needsSanitizing(message)) return message;
 
         // Mask common sensitive fields
-        message = message.replaceAll("(?i)password\\s*[:=]\\s*[^\\s,]+", "password=***");
-        message = message.replaceAll("(?i)token\\s*[:=]\\s*[^\\s,]+", "token=***");
-        message = message.replaceAll("(?i)authorization\\s*[:=]\\s*[^\\s,]+", "authorization=***");
-        message = message.replaceAll("[\\r\\n\\t\\f\\u000B\\u0000-\\u001F\\u007F]+", " ");
+        message = PASSWORD.matcher(message).replaceAll("password=***");
+        message = TOKEN.matcher(message).replaceAll("token=***");
+        message = AUTHORIZATION.matcher(message).replaceAll("authorization=***");
+        message = CONTROL_CHARS.matcher(message).replaceAll(" ");
 
         return message;
     }
 
-    private Object[] sanitizeArgs(Object... args) {
-        if (args == null) {
-            return new Object[] {};
+    /**
+     * Single pass over the text: true if it has a control character or might contain one of the
+     * masked keywords. False positives only cost the regex passes; false negatives can't happen
+     * because every pattern above needs one of these.
+     */
+    static boolean needsSanitizing(String s) {
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x20 || c == 0x7F) {
+                return true;
+            }
+            switch (c) {
+                case 'p', 'P' -> {
+                    if (s.regionMatches(true, i, "password", 0, 8)) return true;
+                }
+                case 't', 'T' -> {
+                    if (s.regionMatches(true, i, "token", 0, 5)) return true;
+                }
+                case 'a', 'A' -> {
+                    if (s.regionMatches(true, i, "authorization", 0, 13)) return true;
+                }
+                default -> {
+                }
+            }
+        }
+        return false;
+    }
+
+    // Arguments are wrapped rather than sanitized up front, so the work only happens if the
+    // backend actually renders the message (level enabled, not filtered out)
+    private static Object[] sanitizeArgs(Object... args) {
+        if (args == null || args.length == 0) {
+            return NO_ARGS;
+        }
+        Object[] wrapped = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            wrapped[i] = args[i] == null ? null : new SanitizedArg(args[i]);
+        }
+        return wrapped;
+    }
+
+    private record SanitizedArg(Object value) {
+        @Override
+        public String toString() {
+            return sanitize(value.toString());
         }
-        return Arrays.stream(args)
-                .map(arg -> arg == null ? null : sanitize(arg.toString()))
-                .toArray();
     }
 
     // ---- Safe logging methods ----
@@ -69,5 +143,86 @@ public class SanitizedLogger {
             logger.error(sanitize(msg), sanitizeArgs(args), t);
         }
     }
-}
 
+    // ---- Bulk / high-frequency logging ----
+
+    /**
+     * INFO, rate-limited per message template (i.e. per call site). Lines over the limit are
+     * dropped without formatting or sanitizing; the next line let through reports how many were.
+     */
+    public void infoRateLimited(String msg, Object... args) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        long suppressed = rateWindows.computeIfAbsent(msg, k -> new RateWindow()).tryAcquire();
+        if (suppressed < 0) {
+            return;
+        }
+        if (suppressed > 0) {
+            logger.info(sanitize(msg) + " (suppressed {} similar)", append(sanitizeArgs(args), suppressed));
+        } else {
+            logger.info(sanitize(msg), sanitizeArgs(args));
+        }
+    }
+
+    /**
+     * One INFO line for a whole collection: {@code "<msg> count=N sample=[...]"}, describing at most
+     * a few items, so the cost doesn't grow with the collection. Per-item lines are written
+     * only when DEBUG is enabled.
+     */
+    public <T> void infoSummary(String msg, Collection<? extends T> items, Function<? super T, ?> describe) {
+        if (logger.isInfoEnabled()) {
+            List<Object> sample = new ArrayList<>(Math.min(items.size(), SUMMARY_SAMPLE_SIZE));
+            Iterator<? extends T> it = items.iterator();
+            while (it.hasNext() && sample.size() < SUMMARY_SAMPLE_SIZE) {
+                sample.add(describe.apply(it.next()));
+            }
+            String more = items.size() > SUMMARY_SAMPLE_SIZE ? ", ..." : "";
+            logger.info(sanitize(msg) + " count={} sample=[{}{}]",
+                    items.size(), sanitize(joinSample(sample)), more);
+        }
+        if (logger.isDebugEnabled()) {
+            for (T item : items) {
+                logger.debug(sanitize(msg) + " item={}", sanitize(String.valueOf(describe.apply(item))));
+            }
+        }
+    }
+
+    private static String joinSample(List<Object> sample) {
+        StringBuilder sb = new StringBuilder();
+        for (Object o : sample) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(o);
+        }
+        return sb.toString();
+    }
+
+    private static Object[] append(Object[] args, Object extra) {
+        Object[] result = Arrays.copyOf(args, args.length + 1);
+        result[args.length] = extra;
+        return result;
+    }
+
+    // Fixed window per template; lock-free so hot call sites never block on each other
+    private final class RateWindow {
+        private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+
+        /** -1 if this line must be dropped, otherwise the number of lines dropped since the last one let through. */
+        long tryAcquire() {
+            long now = System.currentTimeMillis();
+            long start = windowStart.get();
+            if (now - start >= windowMs && windowStart.compareAndSet(start, now)) {
+                count.set(0);
+            }
+            if (count.incrementAndGet() > maxPerWindow) {
+                suppressed.incrementAndGet();
+                return -1;
+            }
+            return suppressed.getAndSet(0);
+        }
+    }
+}
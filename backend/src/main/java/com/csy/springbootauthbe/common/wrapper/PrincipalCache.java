@@ -0,0 +1,49 @@
+package com.csy.springbootauthbe.common.wrapper;
+
+import com.csy.springbootauthbe.common.cache.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived cache of authenticated principals keyed by email, so the JWT filter
+ * does not hit Mongo on every request. Anything that changes a user's status,
+ * email or password must call {@link #evict(String)}.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ExpiringCache<String, UserDetailsWrapper> cache;
+    private final long ttlMs;
+
+    public PrincipalCache(@Value("${auth.principal-cache.ttl-ms:60000}") long ttlMs,
+                          @Value("${auth.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlMs = ttlMs;
+        this.cache = new ExpiringCache<>(maxSize);
+    }
+
+    public UserDetailsWrapper get(String email) {
+        return cache.get(email);
+    }
+
+    public void put(String email, UserDetailsWrapper principal) {
+        cache.put(email, principal, System.currentTimeMillis() + ttlMs);
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    public long getHitCount() {
+        return cache.hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.missCount();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
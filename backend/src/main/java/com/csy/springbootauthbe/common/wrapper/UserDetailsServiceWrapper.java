@@ -12,11 +12,18 @@ import org.springframework.stereotype.Service;
 public class UserDetailsServiceWrapper implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetailsWrapper loadUserByUsername(String email) {
+        UserDetailsWrapper cached = principalCache.get(email);
+        if (cached != null) {
+            return cached;
+        }
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
-        return new UserDetailsWrapper(user);
+        UserDetailsWrapper principal = new UserDetailsWrapper(user);
+        principalCache.put(email, principal);
+        return principal;
     }
 }
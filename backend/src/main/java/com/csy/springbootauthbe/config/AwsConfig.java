@@ -1,5 +1,6 @@
 package com.csy.springbootauthbe.config;
 
+import com.csy.springbootauthbe.common.timing.S3TimingInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -28,6 +29,7 @@ public class AwsConfig {
         return S3Client.builder()
                 .region(Region.of(region))
                 .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .overrideConfiguration(c -> c.addExecutionInterceptor(new S3TimingInterceptor()))
                 .build();
     }
 }
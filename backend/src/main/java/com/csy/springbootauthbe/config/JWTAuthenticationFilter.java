@@ -1,5 +1,8 @@
 package com.csy.springbootauthbe.config;
 
+import com.csy.springbootauthbe.common.timing.RequestTimings;
+import com.csy.springbootauthbe.common.timing.ServerTimingAdvice;
+import com.csy.springbootauthbe.common.utils.SanitizedLogger;
 import com.csy.springbootauthbe.common.wrapper.UserDetailsServiceWrapper;
 import com.csy.springbootauthbe.common.wrapper.UserDetailsWrapper;
 import jakarta.servlet.FilterChain;
@@ -7,6 +10,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,11 +25,40 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
 
     private final JWTService jwtService;
     private final UserDetailsServiceWrapper userDetailsService;
+    private static final SanitizedLogger logger = SanitizedLogger.getLogger(JWTAuthenticationFilter.class);
+
+    @Value("${app.request-timing.enabled:true}")
+    private boolean timingEnabled;
+
+    // Requests slower than this are logged with their timing breakdown; 0 or less disables the log
+    @Value("${app.request-timing.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!timingEnabled) {
+            authenticate(request, response, filterChain);
+            return;
+        }
+
+        RequestTimings timings = RequestTimings.start();
+        try {
+            authenticate(request, response, filterChain);
+        } finally {
+            // Responses that never reached ServerTimingAdvice (no body, errors) still get the header if possible
+            if (!response.isCommitted() && !response.containsHeader(ServerTimingAdvice.HEADER)) {
+                response.setHeader(ServerTimingAdvice.HEADER, timings.serverTimingHeader());
+            }
+            logIfSlow(request, response, timings);
+            RequestTimings.clear();
+        }
+    }
+
+    private void authenticate(HttpServletRequest request,
+                              HttpServletResponse response,
+                              FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
         final String userEmail;
@@ -35,6 +68,7 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        long authStarted = System.nanoTime();
         jwt = authHeader.substring(7);
         userEmail = jwtService.extractUsername(jwt);
 
@@ -57,12 +91,24 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
                 // Any exception during authentication
                 sendForbiddenResponse(response, e.getMessage());
                 return;
+            } finally {
+                RequestTimings.recordAuth(System.nanoTime() - authStarted);
             }
+        } else {
+            RequestTimings.recordAuth(System.nanoTime() - authStarted);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private void logIfSlow(HttpServletRequest request, HttpServletResponse response, RequestTimings timings) {
+        if (slowThresholdMs <= 0 || timings.elapsedNanos() < slowThresholdMs * 1_000_000L) {
+            return;
+        }
+        logger.warn("slow_request method={} path={} status={} {}",
+                request.getMethod(), request.getRequestURI(), response.getStatus(), timings.toLogFields());
+    }
+
     private void sendForbiddenResponse(HttpServletResponse response, String message) throws IOException {
         response.setStatus(HttpServletResponse.SC_FORBIDDEN);
         response.setContentType("application/json");
@@ -1,18 +1,32 @@
 package com.csy.springbootauthbe.config;
 
+import com.csy.springbootauthbe.common.cache.ExpiringCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
@@ -21,6 +35,51 @@ public class JWTService {
     @Value("${jwt.secret.key}")
     private String SECRET_KEY;
 
+    // Upper bound on how long verified claims are reused, regardless of token expiry
+    @Value("${jwt.cache.ttl-ms:300000}")
+    private long claimsCacheTtlMs;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    // Optional so the service can still be constructed directly; falls back to the global registry
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private Key signInKey;
+    private JwtParser parser;
+    private ExpiringCache<String, Claims> claimsCache;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        this.claimsCache = new ExpiringCache<>(claimsCacheMaxSize);
+        bindMetrics(meterRegistry != null ? meterRegistry : Metrics.globalRegistry);
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        this.verifiedTimer = Timer.builder("jwt.verification")
+                .description("Signature verification of tokens not found in the claims cache")
+                .tag("outcome", "valid")
+                .register(registry);
+        this.rejectedTimer = Timer.builder("jwt.verification")
+                .description("Signature verification of tokens not found in the claims cache")
+                .tag("outcome", "rejected")
+                .register(registry);
+        FunctionCounter.builder("jwt.claims.cache", claimsCache, ExpiringCache::hitCount)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("jwt.claims.cache", claimsCache, ExpiringCache::missCount)
+                .tag("result", "miss")
+                .register(registry);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -39,7 +98,7 @@ public class JWTService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 24))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
 
     }
@@ -59,16 +118,49 @@ public class JWTService {
         return claimsResolver.apply(claims);
     }
 
+    /** Number of claim lookups served without re-verifying the signature. */
+    public long getClaimsCacheHits() {
+        return claimsCache.hitCount();
+    }
+
+    public long getClaimsCacheMisses() {
+        return claimsCache.missCount();
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String digest = digest(token);
+        Claims cached = claimsCache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Throws on bad signature or expiry, so only verified claims are ever cached
+        long started = System.nanoTime();
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            rejectedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        verifiedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        long expiresAt = System.currentTimeMillis() + claimsCacheTtlMs;
+        if (claims.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+        }
+        claimsCache.put(digest, claims, expiresAt);
+        return claims;
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Key the cache by digest so raw bearer tokens are never held in memory as map keys
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
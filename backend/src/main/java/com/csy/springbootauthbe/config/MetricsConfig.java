@@ -0,0 +1,59 @@
+package com.csy.springbootauthbe.config;
+
+import com.csy.springbootauthbe.common.wrapper.PrincipalCache;
+import com.csy.springbootauthbe.notification.service.NotificationService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Metrics exposed on /actuator/prometheus.
+ * <ul>
+ *   <li>{@code @Timed} services: booking.service, wallet.service, notification.service, student.tutor.search</li>
+ *   <li>Repository query methods: spring.data.repository.invocations (Boot auto-configuration)</li>
+ *   <li>Mongo driver commands and connection pool: mongodb.driver.* (Boot auto-configuration)</li>
+ *   <li>JWT verification and claims cache: jwt.verification, jwt.claims.cache (registered by JWTService)</li>
+ *   <li>Principal cache of the JWT filter: auth.principal.cache{result=hit|miss}, auth.principal.cache.size</li>
+ *   <li>Open SSE streams: notifications.sse.emitters</li>
+ *   <li>Mongo round trips per booking flow: mongo.flow.round.trips (recorded by UnitOfWorkRunner)</li>
+ * </ul>
+ * Timers are not configured with histograms, so each call costs a registry lookup and an atomic update.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder principalCacheMetrics(PrincipalCache principalCache) {
+        return registry -> {
+            FunctionCounter.builder("auth.principal.cache", principalCache, PrincipalCache::getHitCount)
+                    .description("Principal lookups of the JWT filter served from the cache")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("auth.principal.cache", principalCache, PrincipalCache::getMissCount)
+                    .description("Principal lookups of the JWT filter that went to Mongo")
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("auth.principal.cache.size", principalCache, PrincipalCache::size)
+                    .description("Principals currently cached")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder notificationEmitterMetrics(NotificationService notificationService) {
+        return registry -> Gauge.builder("notifications.sse.emitters", notificationService, NotificationService::activeEmitterCount)
+                .description("Open SSE notification streams")
+                .register(registry);
+    }
+}
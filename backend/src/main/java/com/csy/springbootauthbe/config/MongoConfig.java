@@ -1,11 +1,52 @@
 package com.csy.springbootauthbe.config;
 
+import com.csy.springbootauthbe.booking.entity.BookingStatus;
+import com.csy.springbootauthbe.common.timing.MongoCommandTimingListener;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
 
 @Configuration
 @ConditionalOnProperty(name = "app.mongo.enabled", havingValue = "true", matchIfMissing = true)
 @EnableMongoAuditing
 public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(
+                new BookingStatusWriter(),
+                new BookingStatusReader()
+        ));
+    }
+
+    // Feeds Mongo command time into the per-request Server-Timing breakdown and counts unit-of-work round trips
+    @Bean
+    public MongoClientSettingsBuilderCustomizer requestTimingCommandListener() {
+        return builder -> builder.addCommandListener(new MongoCommandTimingListener());
+    }
+
+    // Booking statuses are stored as their lowercase codes, matching existing documents
+    @WritingConverter
+    static class BookingStatusWriter implements Converter<BookingStatus, String> {
+        @Override
+        public String convert(BookingStatus source) {
+            return source.getCode();
+        }
+    }
+
+    @ReadingConverter
+    static class BookingStatusReader implements Converter<String, BookingStatus> {
+        @Override
+        public BookingStatus convert(String source) {
+            return BookingStatus.fromCode(source);
+        }
+    }
 }
@@ -0,0 +1,220 @@
+package com.csy.springbootauthbe.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Startup check that the indexes declared on our documents exist and that the hot
+ * query shapes are actually served by one.
+ * <p>
+ * Index auto-creation is off by default in Spring Data MongoDB, so declared indexes are
+ * compared with what the server reports, by keys and uniqueness; missing ones are logged
+ * and, unless {@code app.mongo.index-verification.create-missing=false}, created. Indexes
+ * that correctness depends on are created before startup by {@link RequiredIndexes}. Each entry in
+ * {@link #QUERY_SHAPES} is then explained and a warning is logged for any whose winning
+ * plan still contains a {@code COLLSCAN}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = {"app.mongo.enabled", "app.mongo.index-verification.enabled"},
+        havingValue = "true", matchIfMissing = true)
+public class MongoIndexVerifier {
+
+    /** Representative filters/sorts of the repository queries; values only need the right type. */
+    static final List<QueryShape> QUERY_SHAPES = List.of(
+            new QueryShape("bookings.findByTutorIdAndDate", "bookings",
+                    new Document("tutorId", "probe").append("date", "2000-01-01"), null),
+            new QueryShape("bookings.findBookingsByTutorIdAndDateRange", "bookings",
+                    new Document("tutorId", "probe").append("date",
+                            new Document("$gte", "2000-01-01").append("$lte", "2000-01-31")), null),
+            new QueryShape("bookings.findByStudentId", "bookings",
+                    new Document("studentId", "probe"), null),
+            new QueryShape("bookings.recentPastSummary", "bookings",
+                    new Document("tutorId", "probe").append("status", "confirmed")
+                            .append("date", new Document("$lt", "2000-01-01")),
+                    new Document("date", -1)),
+            new QueryShape("bookings.upcomingSummary", "bookings",
+                    new Document("tutorId", "probe")
+                            .append("status", new Document("$in", List.of("confirmed", "pending", "on_hold")))
+                            .append("date", new Document("$gte", "2000-01-01")),
+                    new Document("date", 1)),
+            new QueryShape("bookings.recentPastSummaryTyped", "bookings",
+                    new Document("tutorId", "probe").append("status", "confirmed")
+                            .append("startMinute", new Document("$lt", 0L)),
+                    new Document("startMinute", -1)),
+            new QueryShape("bookings.upcomingSummaryTyped", "bookings",
+                    new Document("tutorId", "probe")
+                            .append("status", new Document("$in", List.of("confirmed", "pending", "on_hold")))
+                            .append("startMinute", new Document("$gte", 0L)),
+                    new Document("startMinute", 1)),
+            new QueryShape("users.adminListingByRole", "users",
+                    new Document("role", "STUDENT"), new Document("_id", 1)),
+            new QueryShape("users.adminListingByRoleAndStatus", "users",
+                    new Document("role", "STUDENT").append("status", "ACTIVE"), new Document("_id", 1)),
+            // Profiles for one page of the admin user listing
+            new QueryShape("students.findAllByUserIdIn", "students",
+                    new Document("userId", new Document("$in", List.of("probe"))), null),
+            new QueryShape("tutors.findAllByUserIdIn", "tutors",
+                    new Document("userId", new Document("$in", List.of("probe"))), null),
+            new QueryShape("admins.findAllByUserIdIn", "admins",
+                    new Document("userId", new Document("$in", List.of("probe"))), null),
+            // The dashboard's $lookup from pending tutor users runs this once per user
+            new QueryShape("tutors.dashboardPendingLookup", "tutors",
+                    new Document("userId", "probe"), null),
+            new QueryShape("wallet_transactions.ledgerTail", "wallet_transactions",
+                    new Document("studentId", "probe").append("seq", new Document("$gt", 0L)), null),
+            new QueryShape("wallet_transactions.ledgerPage", "wallet_transactions",
+                    new Document("studentId", "probe").append("seq", new Document("$lt", 0L)),
+                    new Document("seq", -1)),
+            new QueryShape("wallet_transactions.history", "wallet_transactions",
+                    new Document("studentId", "probe").append("createdAt", new Document("$lt", new Date(0))),
+                    new Document("createdAt", -1).append("_id", -1)),
+            new QueryShape("wallet_transactions.historyByType", "wallet_transactions",
+                    new Document("studentId", "probe").append("type", new Document("$in", List.of("PURCHASE")))
+                            .append("createdAt", new Document("$lt", new Date(0))),
+                    new Document("createdAt", -1).append("_id", -1)),
+            new QueryShape("wallet_snapshots.latest", "wallet_snapshots",
+                    new Document("studentId", "probe"), new Document("seq", -1))
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @Value("${app.mongo.index-verification.create-missing:true}")
+    private boolean createMissing;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        try {
+            verifyDeclaredIndexes();
+            verifyQueryPlans();
+        } catch (RuntimeException e) {
+            // Diagnostics only; never keep the application from starting
+            log.warn("Index verification failed: {}", e.getMessage());
+        }
+    }
+
+    void verifyDeclaredIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        int missing = 0;
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+            Set<String> existing = indexOps.getIndexInfo().stream()
+                    .map(MongoIndexVerifier::keySignature)
+                    .collect(Collectors.toSet());
+
+            for (var definition : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                String signature = keySignature(definition);
+                if (existing.contains(signature)) {
+                    continue;
+                }
+                missing++;
+                if (createMissing) {
+                    log.warn("Missing index on {} {{}}, creating it", entity.getCollection(), signature);
+                    try {
+                        indexOps.ensureIndex(definition);
+                    } catch (RuntimeException e) {
+                        // e.g. a new unique index over existing duplicates; keep checking the rest
+                        log.error("Could not create index on {} {{}}: {}", entity.getCollection(), signature, e.getMessage());
+                    }
+                } else {
+                    log.warn("Missing index on {} {{}}", entity.getCollection(), signature);
+                }
+            }
+        }
+        log.info("Index verification: {} declared index(es) were missing", missing);
+    }
+
+    /** Names of the shapes whose winning plan still scans the whole collection. */
+    List<String> verifyQueryPlans() {
+        List<String> collectionScans = new ArrayList<>();
+        for (QueryShape shape : QUERY_SHAPES) {
+            Document find = new Document("find", shape.collection()).append("filter", shape.filter());
+            if (shape.sort() != null) {
+                find.append("sort", shape.sort());
+            }
+            Document explain = mongoTemplate.getDb().runCommand(
+                    new Document("explain", find).append("verbosity", "queryPlanner"));
+            Document planner = explain.get("queryPlanner", Document.class);
+            if (planner != null && usesCollectionScan(planner.get("winningPlan", Document.class))) {
+                log.warn("Query shape {} falls back to COLLSCAN on {}", shape.name(), shape.collection());
+                collectionScans.add(shape.name());
+            }
+        }
+        return collectionScans;
+    }
+
+    /** True if any stage in the (possibly nested) winning plan is a collection scan. */
+    static boolean usesCollectionScan(Document plan) {
+        if (plan == null) {
+            return false;
+        }
+        if ("COLLSCAN".equals(plan.getString("stage"))) {
+            return true;
+        }
+        // Classic plans nest via inputStage/inputStages; SBE plans wrap the classic one in queryPlan
+        for (String child : List.of("inputStage", "queryPlan")) {
+            if (plan.get(child) instanceof Document nested && usesCollectionScan(nested)) {
+                return true;
+            }
+        }
+        if (plan.get("inputStages") instanceof List<?> stages) {
+            for (Object stage : stages) {
+                if (stage instanceof Document nested && usesCollectionScan(nested)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String keySignature(IndexInfo info) {
+        List<String> parts = new ArrayList<>();
+        for (IndexField field : info.getIndexFields()) {
+            parts.add(field.getKey() + ":" + (field.getDirection() == Sort.Direction.DESC ? -1 : 1));
+        }
+        // Uniqueness is part of the signature, so a plain index with the same keys does not hide a missing unique one
+        return String.join(",", parts) + (info.isUnique() ? " unique" : "");
+    }
+
+    private static String keySignature(IndexDefinition definition) {
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<String, Object> key : definition.getIndexKeys().entrySet()) {
+            Object direction = key.getValue();
+            int value = direction instanceof Number n && n.intValue() < 0 ? -1 : 1;
+            parts.add(key.getKey() + ":" + value);
+        }
+        boolean unique = Boolean.TRUE.equals(definition.getIndexOptions().get("unique"));
+        return String.join(",", parts) + (unique ? " unique" : "");
+    }
+
+    record QueryShape(String name, String collection, Document filter, Document sort) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.csy.springbootauthbe.config;
+
+import com.csy.springbootauthbe.common.idempotency.IdempotencyRecord;
+import com.csy.springbootauthbe.wallet.entity.Wallet;
+import com.csy.springbootauthbe.wallet.entity.WalletSnapshot;
+import com.csy.springbootauthbe.wallet.entity.WalletTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the indexes that correctness, not just speed, depends on before the web server
+ * starts taking requests, and fails startup if any of them cannot be created:
+ * <ul>
+ *   <li>idempotency_keys {@code user_key_idx}: without it two concurrent retries both claim a key;</li>
+ *   <li>wallets {@code studentId}: the upsert race in WalletService relies on it to end in one wallet;</li>
+ *   <li>the unique (studentId, seq) indexes of the ledger and its snapshots.</li>
+ * </ul>
+ * {@link MongoIndexVerifier} runs only once the application is ready and merely logs, so it
+ * cannot be relied on for these. {@code ensureIndex} is a no-op for an index that already exists.
+ */
+@Slf4j
+@Component
+public class RequiredIndexes implements SmartInitializingSingleton {
+
+    static final List<Class<?>> ENTITIES = List.of(
+            IdempotencyRecord.class, Wallet.class, WalletTransaction.class, WalletSnapshot.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    public RequiredIndexes(MongoTemplate mongoTemplate,
+                           @Value("${app.mongo.enabled:true}") boolean mongoEnabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = mongoEnabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> entity : ENTITIES) {
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity)) {
+                try {
+                    mongoTemplate.indexOps(entity).ensureIndex(definition);
+                } catch (RuntimeException e) {
+                    // e.g. duplicates in existing data, or a non-unique index with the same keys
+                    throw new IllegalStateException("Could not create required index " + definition.getIndexKeys()
+                            + " on " + mongoTemplate.getCollectionName(entity) + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        log.info("Required indexes present on {} collections", ENTITIES.size());
+    }
+}
@@ -2,6 +2,7 @@ package com.csy.springbootauthbe.config;
 
 import jakarta.servlet.Filter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -10,6 +11,8 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -19,11 +22,21 @@ public class SecurityConfig {
     private final JWTAuthenticationFilter jwtAuthFilter;
     private final AuthenticationProvider authProvider;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    // -1 when actuator shares the application port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf().disable()
                 .authorizeHttpRequests()
-                .requestMatchers("/api/v1/auth/**", "/v1/auth/**", "/api/v1/seq/next-id")
+                .requestMatchers("/api/v1/auth/**", "/v1/auth/**", "/api/v1/seq/next-id",
+                        "/actuator/health")
+                .permitAll()
+                .requestMatchers(onManagementPort(AntPathRequestMatcher.antMatcher("/actuator/prometheus")))
                 .permitAll()
                 .anyRequest()
                 .authenticated()
@@ -35,4 +48,14 @@ public class SecurityConfig {
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
+
+    /**
+     * Matches only requests that arrived on a dedicated management port. If actuator shares
+     * the application port (no or the same management.server.port), nothing matches and the
+     * endpoint needs an authenticated request like any other.
+     */
+    private RequestMatcher onManagementPort(RequestMatcher path) {
+        boolean separatePort = managementPort > 0 && managementPort != serverPort;
+        return request -> separatePort && request.getLocalPort() == managementPort && path.matches(request);
+    }
 }
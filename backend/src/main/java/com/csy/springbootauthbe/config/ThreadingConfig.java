@@ -0,0 +1,40 @@
+package com.csy.springbootauthbe.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Request handling can run on virtual threads with {@code spring.threads.virtual.enabled=true}.
+ * Spring Boot then switches Tomcat's request executor, the application task executor and the
+ * scheduler, and our own background work (BookingTimeMigration) follows the same flag.
+ * <p>
+ * Virtual threads need a Java 21 runtime. The code is still compiled for 17, so on an older JVM
+ * Boot silently stays on platform threads; this logs which mode is actually active.
+ * Shared state on request paths is guarded by ReentrantLock or atomics rather than
+ * {@code synchronized}, so a blocked virtual thread does not pin its carrier.
+ */
+@Slf4j
+@Configuration
+public class ThreadingConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsRequested;
+
+    public static boolean virtualThreadsSupported() {
+        return JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode() {
+        if (virtualThreadsRequested && !virtualThreadsSupported()) {
+            log.warn("spring.threads.virtual.enabled=true ignored: Java {} has no virtual threads, using platform threads",
+                    JavaVersion.getJavaVersion());
+        } else {
+            log.info("Request handling on {} threads", virtualThreadsRequested ? "virtual" : "platform");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.csy.springbootauthbe.event.service;
 
+import com.csy.springbootauthbe.common.schedule.SlotConflictService;
 import com.csy.springbootauthbe.common.sequence.SequenceGeneratorService;
 import com.csy.springbootauthbe.common.utils.SanitizedLogger;
 import com.csy.springbootauthbe.event.dto.EventDTO;
@@ -29,6 +30,7 @@ public class EventServiceImpl implements EventService {
     private final EventMapper eventMapper;
     private final MongoTemplate mongoTemplate;
     private final SequenceGeneratorService sequenceGenerator;
+    private final SlotConflictService slotConflictService;
     private static final SanitizedLogger logger = SanitizedLogger.getLogger(EventServiceImpl.class);
 
 
@@ -65,18 +67,14 @@ public class EventServiceImpl implements EventService {
         return createEventResponse(saved);
     }
 
-    private static void validateEvent(EventRequest request, List<EventDTO> events) {
+    private void validateEvent(EventRequest request, List<EventDTO> events) {
         LocalDateTime start = LocalDateTime.parse(request.getStart());
         LocalDateTime end = LocalDateTime.parse(request.getEnd());
         if (end.isBefore(start)) {
             throw new IllegalArgumentException("End date cannot be before Start date");
         }
-        for(EventDTO event : events){
-            LocalDateTime oldStart = LocalDateTime.parse(event.getStart());
-            LocalDateTime oldEnd = LocalDateTime.parse(event.getEnd());
-            if (start.isBefore(oldEnd) && end.isAfter(oldStart)){
-                throw new IllegalArgumentException("Event overlaps an existing event");
-            }
+        if (slotConflictService.eventOverlaps(events, start, end)) {
+            throw new IllegalArgumentException("Event overlaps an existing event");
         }
 
     }
@@ -34,7 +34,7 @@ public class NotificationController {
     /** Initial fetch of existing notifications */
     @GetMapping
     public List<NotificationDTO> getNotifications(@RequestParam String userId) {
-        logger.info("Fetching notifications for userId: {}", userId);
+        logger.infoRateLimited("Fetching notifications for userId: {}", userId); // polled by every open client
         return service.getUserNotifications(userId);
     }
 
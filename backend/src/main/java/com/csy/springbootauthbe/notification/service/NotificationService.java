@@ -1,10 +1,12 @@
 package com.csy.springbootauthbe.notification.service;
 
+import com.csy.springbootauthbe.common.unitofwork.MongoUnitOfWork;
 import com.csy.springbootauthbe.common.utils.SanitizedLogger;
 import com.csy.springbootauthbe.notification.dto.NotificationDTO;
 import com.csy.springbootauthbe.notification.entity.Notification;
 import com.csy.springbootauthbe.notification.mapper.NotificationMapper;
 import com.csy.springbootauthbe.notification.repository.NotificationRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -17,6 +19,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("notification.service")
 public class NotificationService {
 
     private final NotificationRepository repo;
@@ -37,6 +40,15 @@ public class NotificationService {
         emitter.onTimeout(() -> emitters.get(userId).remove(emitter));
     }
 
+    /** Number of SSE streams currently registered, across all users */
+    public int activeEmitterCount() {
+        int count = 0;
+        for (List<SseEmitter> userEmitters : emitters.values()) {
+            count += userEmitters.size();
+        }
+        return count;
+    }
+
     /** Fetch all existing notifications for a user (initial load) */
     public List<NotificationDTO> getUserNotifications(String userId) {
         try {
@@ -79,6 +91,24 @@ public class NotificationService {
         }
     }
 
+    /**
+     * Registers the notification with a booking flow's unit of work; it is pushed over SSE
+     * once the flow's writes have been flushed.
+     */
+    public NotificationDTO createNotification(String userId, String type, String bookingId, String message,
+                                              MongoUnitOfWork uow) {
+        Notification n = new Notification();
+        n.setUserId(userId);
+        n.setType(type);
+        n.setBookingId(bookingId);
+        n.setMessage(message);
+        uow.insert(n);
+
+        NotificationDTO dto = mapper.toDto(n);
+        uow.afterCommit(() -> sendNotification(userId, dto));
+        return dto;
+    }
+
     /** Mark a notification as read */
     public void markAsRead(String notificationId) {
         Notification n = repo.findById(notificationId).orElseThrow(() -> new RuntimeException("Notification not found"));
@@ -2,6 +2,7 @@ package com.csy.springbootauthbe.student.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -13,6 +14,7 @@ public class Student {
 
     @Id
     private String id; // // MongoDB _id
+    @Indexed // the admin listing fetches a page of profiles with userId $in
     private String userId; // Reference to User document for login credentials
     private String studentNumber;
     private String gradeLevel;
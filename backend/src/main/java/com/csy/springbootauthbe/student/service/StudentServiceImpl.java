@@ -10,6 +10,7 @@ import com.csy.springbootauthbe.student.mapper.StudentMapper;
 import com.csy.springbootauthbe.student.repository.StudentRepository;
 import com.csy.springbootauthbe.student.utils.TutorSearchRequest;
 import com.csy.springbootauthbe.tutor.entity.QualificationFile;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
@@ -62,6 +63,7 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
+    @Timed("student.tutor.search")
     public List<TutorProfileDTO> searchTutors(TutorSearchRequest req) {
         log.info("Searching tutors with request: {}", req);
 
@@ -200,7 +202,8 @@ public class StudentServiceImpl implements StudentService {
 
 
     /* ======= Helper Methods  ====================================================== */
-    private TutorProfileDTO mapToTutorDTO(Document doc) {
+    // Package-private and static so the jmh suite can measure it without a MongoTemplate
+    static TutorProfileDTO mapToTutorDTO(Document doc) {
         TutorProfileDTO dto = new TutorProfileDTO();
         dto.setId(doc.getObjectId("_id").toHexString());
         dto.setUserId(doc.getString("userId"));
@@ -5,6 +5,7 @@ import com.csy.springbootauthbe.tutor.dto.TutorStagedProfileDTO;
 import com.csy.springbootauthbe.user.entity.AccountStatus;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.List;
@@ -20,7 +21,9 @@ public class Tutor {
     @Id
     private String id;
     private String subject;
-    // Reference to User document for login credentials, composite
+    // Reference to User document for login credentials, composite.
+    // Indexed for the admin dashboard's $lookup and the batched profile fetches by user id
+    @Indexed
     private String userId;
     private Double hourlyRate;
 
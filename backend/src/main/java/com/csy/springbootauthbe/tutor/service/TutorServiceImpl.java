@@ -1,7 +1,9 @@
 package com.csy.springbootauthbe.tutor.service;
 
+import com.csy.springbootauthbe.admin.service.DashboardCounterService;
 import com.csy.springbootauthbe.common.aws.AwsResponse;
 import com.csy.springbootauthbe.common.aws.AwsService;
+import com.csy.springbootauthbe.common.wrapper.PrincipalCache;
 import com.csy.springbootauthbe.student.dto.StudentDTO;
 import com.csy.springbootauthbe.student.entity.Student;
 import com.csy.springbootauthbe.tutor.dto.TutorDTO;
@@ -36,6 +38,8 @@ public class TutorServiceImpl implements TutorService {
     private final UserRepository userRepository;
     private final TutorMapper tutorMapper;
     private final AwsService awsService;
+    private final PrincipalCache principalCache;
+    private final DashboardCounterService dashboardCounterService;
 
     private static final String DEFAULT_PROFILE_URL =
             "https://tutorlink-s3.s3.us-east-1.amazonaws.com/profilePicture/default-profile-pic.jpg";
@@ -163,6 +167,8 @@ public class TutorServiceImpl implements TutorService {
         tutor.setRejectedReason(null);
 
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
+        dashboardCounterService.recordTransition(user.getRole(), tutor.getPreviousStatus(), AccountStatus.PENDING_APPROVAL);
         tutorRepository.save(tutor);
 
         return createTutorResponse(tutor, user);
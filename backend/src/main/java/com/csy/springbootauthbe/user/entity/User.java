@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
@@ -25,6 +27,11 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "users")
+@CompoundIndexes({
+    // Keyset pagination of admin listings, with and without a status filter
+    @CompoundIndex(name = "role_id_idx", def = "{'role': 1, '_id': 1}"),
+    @CompoundIndex(name = "role_status_id_idx", def = "{'role': 1, 'status': 1, '_id': 1}")
+})
 public class User implements UserDetails {
 
     @Id
@@ -2,8 +2,10 @@ package com.csy.springbootauthbe.user.repository;
 
 import com.csy.springbootauthbe.user.entity.Role;
 import com.csy.springbootauthbe.user.entity.User;
+import com.csy.springbootauthbe.user.utils.UserSummary;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +22,7 @@ public interface UserRepository extends MongoRepository<User, String> {
 
     List<User> findAllByRole(Role role);
 
+    // Projected to id/firstname/lastname only
+    List<UserSummary> findSummariesByIdIn(Collection<String> ids);
+
 }
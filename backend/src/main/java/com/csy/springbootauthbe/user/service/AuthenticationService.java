@@ -2,6 +2,7 @@ package com.csy.springbootauthbe.user.service;
 
 import com.csy.springbootauthbe.admin.dto.AdminDTO;
 import com.csy.springbootauthbe.admin.service.AdminService;
+import com.csy.springbootauthbe.admin.service.DashboardCounterService;
 import com.csy.springbootauthbe.common.utils.SanitizedLogger;
 import com.csy.springbootauthbe.student.dto.StudentDTO;
 import com.csy.springbootauthbe.student.service.StudentService;
@@ -36,6 +37,7 @@ public class AuthenticationService {
     private final StudentService studentService;
     private final TutorService tutorService;
     private final AdminService adminService;
+    private final DashboardCounterService dashboardCounterService;
 
     private static final SanitizedLogger logger = SanitizedLogger.getLogger(AuthenticationService.class);
 
@@ -62,6 +64,7 @@ public class AuthenticationService {
                 .build();
 
         repository.save(user);
+        dashboardCounterService.recordCreated(userRole, status);
         logger.info("User saved successfully: id={}, email={}", user.getId(), user.getEmail());
 
         // Create student entity if role is STUDENT
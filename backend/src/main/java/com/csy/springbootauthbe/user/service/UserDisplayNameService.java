@@ -0,0 +1,67 @@
+package com.csy.springbootauthbe.user.service;
+
+import com.csy.springbootauthbe.common.cache.ExpiringCache;
+import com.csy.springbootauthbe.user.repository.UserRepository;
+import com.csy.springbootauthbe.user.utils.UserSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves user ids to "firstname lastname" for listings. Names are cached for
+ * {@code user.display-name-cache.ttl-ms}; misses are fetched in one projected query.
+ */
+@Service
+public class UserDisplayNameService {
+
+    private final UserRepository userRepository;
+    private final ExpiringCache<String, String> names;
+    private final long ttlMs;
+
+    public UserDisplayNameService(UserRepository userRepository,
+                                  @Value("${user.display-name-cache.ttl-ms:300000}") long ttlMs,
+                                  @Value("${user.display-name-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.names = new ExpiringCache<>(maxSize);
+    }
+
+    /** Display names for the given ids; ids of unknown users are absent from the result. */
+    public Map<String, String> displayNames(Collection<String> userIds) {
+        Map<String, String> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : new HashSet<>(userIds)) {
+            if (id == null) {
+                continue;
+            }
+            String cached = names.get(id);
+            if (cached != null) {
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long expiresAt = System.currentTimeMillis() + ttlMs;
+            for (UserSummary summary : userRepository.findSummariesByIdIn(missing)) {
+                String name = summary.displayName();
+                names.put(summary.id(), name, expiresAt);
+                result.put(summary.id(), name);
+            }
+        }
+        return result;
+    }
+
+    public void evict(String userId) {
+        if (userId != null) {
+            names.invalidate(userId);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.csy.springbootauthbe.user.service;
 
+import com.csy.springbootauthbe.admin.service.DashboardCounterService;
+import com.csy.springbootauthbe.common.wrapper.PrincipalCache;
 import com.csy.springbootauthbe.user.entity.Role;
 import com.csy.springbootauthbe.user.entity.User;
 import com.csy.springbootauthbe.user.repository.UserRepository;
@@ -21,6 +23,9 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final UserDisplayNameService userDisplayNameService;
+    private final DashboardCounterService dashboardCounterService;
 
     public UserResponse getCurrentAdmin() {
         // Get the authenticated user's email from the JWT token
@@ -87,6 +92,8 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
+        // Drop the cached principal under the old email before it changes
+        principalCache.evict(user.getEmail());
         user.setEmail(updatedUserData.getEmail());
 
         if (updatedUserData.getPassword() != null && !updatedUserData.getPassword().isEmpty()) {
@@ -94,6 +101,7 @@ public class UserService {
         }
 
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
         return createUserResponse(user);
     }
 
@@ -102,6 +110,9 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         userRepository.delete(user);
+        dashboardCounterService.recordDeleted(user.getRole(), user.getStatus());
+        principalCache.evict(user.getEmail());
+        userDisplayNameService.evict(user.getId());
     }
 
     private UserResponse createUserResponse(User user) {
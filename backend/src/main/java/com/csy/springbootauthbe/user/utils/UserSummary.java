@@ -0,0 +1,12 @@
+package com.csy.springbootauthbe.user.utils;
+
+/**
+ * Read-only projection of a user for display purposes. Only these fields are fetched
+ * from Mongo, so password hashes and other profile data never leave the database.
+ */
+public record UserSummary(String id, String firstname, String lastname) {
+
+    public String displayName() {
+        return firstname + " " + lastname;
+    }
+}
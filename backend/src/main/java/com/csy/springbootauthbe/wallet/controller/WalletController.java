@@ -1,5 +1,10 @@
 package com.csy.springbootauthbe.wallet.controller;
 
+import com.csy.springbootauthbe.common.idempotency.Idempotent;
+import com.csy.springbootauthbe.common.idempotency.IdempotencyAspect;
+import com.csy.springbootauthbe.common.pagination.CursorPage;
+import com.csy.springbootauthbe.wallet.dto.WalletMonthlySummary;
+import com.csy.springbootauthbe.wallet.dto.WalletTransactionQuery;
 import com.csy.springbootauthbe.wallet.entity.Wallet;
 import com.csy.springbootauthbe.wallet.entity.WalletTransaction;
 import com.csy.springbootauthbe.wallet.service.WalletService;
@@ -28,15 +33,19 @@ public class WalletController {
     }
 
     // Manually top-up credits (used by success redirect)
+    @Idempotent
     @PostMapping("/topup")
-    public ResponseEntity<Wallet> topUp(@RequestBody Map<String, Object> req) {
+    public ResponseEntity<Wallet> topUp(@RequestBody Map<String, Object> req,
+                                        @RequestHeader(value = IdempotencyAspect.HEADER, required = false) String idempotencyKey) {
         String studentId = (String) req.get("studentId");
         BigDecimal amount = new BigDecimal(req.get("amount").toString());
-        String refId = UUID.randomUUID().toString();
+        // The client's key doubles as the ledger reference, so a top-up can be traced back to its request
+        String refId = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey : UUID.randomUUID().toString();
         return ResponseEntity.ok(walletService.addCredits(studentId, amount, refId));
     }
 
     // Deduct credits for bookings
+    @Idempotent
     @PostMapping("/deduct")
     public ResponseEntity<Wallet> deduct(@RequestBody Map<String, Object> req) {
         String studentId = (String) req.get("studentId");
@@ -45,13 +54,38 @@ public class WalletController {
         return ResponseEntity.ok(walletService.deductCredits(studentId, amount, bookingId));
     }
 
-    // View all wallet transactions
+    // Newest transactions only (limit defaults to 50, at most 200); deprecated, page through /history instead
+    @Deprecated
     @GetMapping("/transactions/{studentId}")
-    public ResponseEntity<List<WalletTransaction>> getTxns(@PathVariable String studentId) {
-        return ResponseEntity.ok(walletService.getTransactions(studentId));
+    public ResponseEntity<List<WalletTransaction>> getTxns(@PathVariable String studentId,
+                                                           @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(walletService.getTransactions(studentId, limit));
+    }
+
+    // Ledger history newest first, paged by sequence number
+    @GetMapping("/transactions/{studentId}/page")
+    public ResponseEntity<CursorPage<WalletTransaction>> getTxnsPage(@PathVariable String studentId,
+                                                                     @RequestParam(required = false) Long cursor,
+                                                                     @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(walletService.getTransactionsPage(studentId, cursor, limit));
+    }
+
+    // Full history newest first, filterable by type (repeat or comma-separate) and from/to dates (inclusive)
+    @GetMapping("/transactions/{studentId}/history")
+    public ResponseEntity<CursorPage<WalletTransaction>> getHistory(@PathVariable String studentId,
+                                                                    @ModelAttribute WalletTransactionQuery query) {
+        return ResponseEntity.ok(walletService.getTransactionHistory(studentId, query));
+    }
+
+    // Credits, debits and per-type totals per month, same filters as the history
+    @GetMapping("/transactions/{studentId}/monthly")
+    public ResponseEntity<List<WalletMonthlySummary>> getMonthlySummary(@PathVariable String studentId,
+                                                                        @ModelAttribute WalletTransactionQuery query) {
+        return ResponseEntity.ok(walletService.getMonthlySummary(studentId, query));
     }
 
     //  Create Stripe Checkout session (NO webhook needed)
+    @Idempotent
     @PostMapping("/create-checkout-session")
     public ResponseEntity<Map<String, Object>> createCheckoutSession(@RequestBody Map<String, Object> req) throws Exception {
         String studentId = (String) req.get("studentId");
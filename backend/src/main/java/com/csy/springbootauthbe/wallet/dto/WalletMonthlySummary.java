@@ -0,0 +1,33 @@
+package com.csy.springbootauthbe.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Wallet activity of one calendar month, aggregated in Mongo. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletMonthlySummary {
+    private String month;          // yyyy-MM, server time zone
+    private BigDecimal credits;    // sum of positive amounts
+    private BigDecimal debits;     // sum of negative amounts, as a negative number
+    private BigDecimal net;
+    private long count;
+    private List<TypeTotal> types;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TypeTotal {
+        private String type;
+        private BigDecimal amount;
+        private long count;
+    }
+}
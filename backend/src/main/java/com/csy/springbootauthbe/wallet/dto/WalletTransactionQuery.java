@@ -0,0 +1,29 @@
+package com.csy.springbootauthbe.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Query parameters for the wallet transaction history and monthly summary.
+ * History is ordered newest first by (createdAt, _id); {@code cursor} is the
+ * {@code nextCursor} of the previous page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletTransactionQuery {
+    private List<String> type;     // optional, e.g. type=PURCHASE&type=BOOKING_REFUND
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;        // inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;          // inclusive
+    private String cursor;         // opaque, from the previous page
+    private Integer limit;         // page size, capped server-side
+}
@@ -5,7 +5,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -18,9 +21,13 @@ import java.time.LocalDateTime;
 public class Wallet {
     @Id
     private String id;
+    @Indexed(unique = true) // one wallet per user, so concurrent upserts cannot create two
     private String studentId;
+    // Decimal128 rather than the default string so $inc and range guards work server-side
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal balance = BigDecimal.ZERO;
     private String currency = "SGD";
     private LocalDateTime updatedAt;
+    // Sequence of the last ledger entry; incremented in the same update as the balance
+    private Long seq;
 }
-
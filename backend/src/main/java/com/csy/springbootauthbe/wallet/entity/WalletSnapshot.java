@@ -0,0 +1,35 @@
+package com.csy.springbootauthbe.wallet.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of a wallet right after ledger entry {@code seq}. Written every
+ * {@code wallet.snapshot-interval} entries, plus an opening snapshot at seq 0 for wallets
+ * that had a balance before the ledger existed. A wallet without snapshots starts at 0.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "wallet_snapshots")
+@CompoundIndex(name = "student_seq_idx", def = "{'studentId': 1, 'seq': -1}", unique = true)
+public class WalletSnapshot {
+    @Id
+    private String id;
+    private String studentId;
+    private long seq;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal balance;
+    private LocalDateTime createdAt;
+}
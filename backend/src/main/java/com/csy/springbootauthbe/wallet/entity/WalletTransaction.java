@@ -5,24 +5,45 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * One wallet ledger entry. Entries that move money carry the wallet's next {@code seq}
+ * (1, 2, 3, ... per wallet) and are never updated; the balance is the latest
+ * {@link WalletSnapshot} plus the sum of the entries after it. Trace records that do not
+ * change the balance, and entries written before the ledger existed, have no seq.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "wallet_transactions")
+@CompoundIndexes({
+    // Ledger tail sums and history pages; unique so a sequence number can only be used once
+    @CompoundIndex(name = "student_seq_idx", def = "{'studentId': 1, 'seq': 1}", unique = true,
+            partialFilter = "{ 'seq': { '$exists': true } }"),
+    // Keyset-paginated history and monthly summaries, with and without a type filter
+    @CompoundIndex(name = "student_created_idx", def = "{'studentId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "student_type_created_idx", def = "{'studentId': 1, 'type': 1, 'createdAt': -1, '_id': -1}")
+})
 public class WalletTransaction {
     @Id
     private String id;
     private String studentId;
+    private Long seq;
     private String type; // PURCHASE, BOOKING_DEDUCT, REFUND, BONUS
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal amount;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal balanceAfter;
     private String description;
     private String refId; // bookingId / paymentId
     private LocalDateTime createdAt = LocalDateTime.now();
 }
-
@@ -0,0 +1,10 @@
+package com.csy.springbootauthbe.wallet.repository;
+
+import com.csy.springbootauthbe.wallet.entity.WalletSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface WalletSnapshotRepository extends MongoRepository<WalletSnapshot, String> {
+    Optional<WalletSnapshot> findFirstByStudentIdOrderBySeqDesc(String studentId);
+}
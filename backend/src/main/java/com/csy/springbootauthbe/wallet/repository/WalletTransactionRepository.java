@@ -1,10 +1,14 @@
 package com.csy.springbootauthbe.wallet.repository;
 
 import com.csy.springbootauthbe.wallet.entity.WalletTransaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
 public interface WalletTransactionRepository extends MongoRepository<WalletTransaction, String> {
-    List<WalletTransaction> findByStudentIdOrderByCreatedAtDesc(String studentId);
-}
\ No newline at end of file
+    // Ledger tail after a snapshot; at most one snapshot interval of entries
+    List<WalletTransaction> findByStudentIdAndSeqGreaterThan(String studentId, long seq);
+
+    List<WalletTransaction> findByStudentIdAndSeqLessThanOrderBySeqDesc(String studentId, long seq, Pageable pageable);
+}
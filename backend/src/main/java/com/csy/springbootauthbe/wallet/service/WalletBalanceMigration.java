@@ -0,0 +1,123 @@
+package com.csy.springbootauthbe.wallet.service;
+
+import com.csy.springbootauthbe.wallet.entity.Wallet;
+import com.csy.springbootauthbe.wallet.entity.WalletSnapshot;
+import com.mongodb.client.result.UpdateResult;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Wallet balances used to be stored with Spring Data's default BigDecimal mapping, a string,
+ * which {@code $inc} and numeric range guards cannot work on. This converts any remaining
+ * string balances to Decimal128 in one server-side update before the web server starts
+ * taking requests. Idempotent, so every node simply runs it on startup.
+ * <p>
+ * It then opens a ledger for wallets that predate it: a seq 0 snapshot holding the current
+ * balance, after which the wallet head gets {@code seq = 0}. Snapshots go first, so a run
+ * that dies half way leaves wallets still without {@code seq} and the next run picks them up.
+ * <p>
+ * A failure stops startup: a wallet credited or debited before its ledger is opened gets a
+ * {@code seq} without the opening snapshot, and its earlier balance would then be missing
+ * from every ledger balance for good.
+ */
+@Slf4j
+@Component
+public class WalletBalanceMigration implements SmartInitializingSingleton {
+
+    // BSON type number of string
+    private static final int BSON_STRING = 2;
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    public WalletBalanceMigration(MongoTemplate mongoTemplate,
+                                  @Value("${app.mongo.enabled:true}") boolean mongoEnabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = mongoEnabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long converted = run();
+            if (converted > 0) {
+                log.info("Converted {} wallet balances from string to Decimal128", converted);
+            }
+            long opened = openLedgers();
+            if (opened > 0) {
+                log.info("Opened ledgers for {} existing wallets", opened);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Wallet migration failed: " + e.getMessage(), e);
+        }
+    }
+
+    long run() {
+        Query stringBalances = Query.query(Criteria.where("balance").type(BSON_STRING));
+        AggregationUpdate toDecimal = AggregationUpdate.update()
+                .set("balance").toValue(ConvertOperators.valueOf("balance").convertToDecimal());
+        UpdateResult result = mongoTemplate.updateMulti(stringBalances, toDecimal, Wallet.class);
+        return result.getModifiedCount();
+    }
+
+    long openLedgers() {
+        Query withoutSeq = Query.query(Criteria.where("seq").exists(false));
+        withoutSeq.fields().include("studentId", "balance");
+        long opened = 0;
+        List<Wallet> batch = new ArrayList<>(BATCH_SIZE);
+        try (Stream<Wallet> wallets = mongoTemplate.stream(withoutSeq, Wallet.class)) {
+            Iterator<Wallet> it = wallets.iterator();
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == BATCH_SIZE) {
+                    opened += openBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            opened += openBatch(batch);
+        }
+        return opened;
+    }
+
+    private long openBatch(List<Wallet> wallets) {
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations snapshots = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WalletSnapshot.class);
+        List<String> ids = new ArrayList<>(wallets.size());
+        for (Wallet wallet : wallets) {
+            // Upsert rather than insert: a rerun after an interrupted batch must not duplicate
+            // snapshots, and the unique index may not have been created yet at this point
+            Query opening = Query.query(Criteria.where("studentId").is(wallet.getStudentId()).and("seq").is(0L));
+            Update balance = new Update()
+                    .setOnInsert("balance", new Decimal128(wallet.getBalance() != null ? wallet.getBalance() : BigDecimal.ZERO))
+                    .setOnInsert("createdAt", now);
+            snapshots.upsert(opening, balance);
+            ids.add(wallet.getId());
+        }
+        snapshots.execute();
+        Query heads = Query.query(Criteria.where("_id").in(ids).and("seq").exists(false));
+        return mongoTemplate.updateMulti(heads, new Update().set("seq", 0L), Wallet.class).getModifiedCount();
+    }
+}
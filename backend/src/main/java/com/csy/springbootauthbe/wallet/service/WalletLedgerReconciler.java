@@ -0,0 +1,153 @@
+package com.csy.springbootauthbe.wallet.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Verifies the wallet ledger in bulk, entirely server-side:
+ * <ul>
+ *   <li>every snapshot equals the previous snapshot of the same wallet (or zero) plus the
+ *       entries between them, and that range of seq has no gaps;</li>
+ *   <li>every wallet head equals its latest snapshot plus the entries after it.</li>
+ * </ul>
+ * Each check is one aggregation, so the cost does not grow with round trips per wallet.
+ * Documents touched within {@code wallet.reconcile-grace-ms} are skipped, because an
+ * operation may have moved the head but not yet appended its entry. Mismatches are only
+ * logged; money is never moved automatically.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WalletLedgerReconciler {
+
+    private static final Decimal128 ZERO = new Decimal128(0);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${wallet.reconcile-grace-ms:60000}")
+    private long graceMs = 60000;
+
+    @Scheduled(fixedDelayString = "${wallet.reconcile-interval-ms:3600000}",
+               initialDelayString = "${wallet.reconcile-initial-delay-ms:300000}")
+    public void reconcile() {
+        reconcileNow();
+    }
+
+    public Report reconcileNow() {
+        // As a Date the way Spring Data stores LocalDateTime, since these pipelines bypass the converter
+        Date settledBefore = Date.from(Instant.now().minusMillis(graceMs));
+        List<Document> snapshots = new ArrayList<>();
+        mongoTemplate.getCollection("wallet_snapshots")
+                .aggregate(snapshotCheck(settledBefore)).allowDiskUse(true).into(snapshots);
+        List<Document> heads = new ArrayList<>();
+        mongoTemplate.getCollection("wallets")
+                .aggregate(headCheck(settledBefore)).allowDiskUse(true).into(heads);
+
+        for (Document row : snapshots) {
+            log.warn("Wallet snapshot mismatch for {} at seq {}: stored={}, ledger={}, entries={}/{}",
+                    row.getString("studentId"), row.get("seq"), row.get("balance"), row.get("expected"),
+                    row.get("entries"), row.get("expectedEntries"));
+        }
+        for (Document row : heads) {
+            log.warn("Wallet head mismatch for {} at seq {}: stored={}, ledger={}, entries={}/{}",
+                    row.getString("studentId"), row.get("seq"), row.get("balance"), row.get("expected"),
+                    row.get("entries"), row.get("expectedEntries"));
+        }
+        log.info("Wallet ledger reconciled: {} snapshot(s) and {} wallet(s) mismatched",
+                snapshots.size(), heads.size());
+        return new Report(snapshots, heads);
+    }
+
+    /**
+     * Pairs each snapshot with the one before it ({@code $setWindowFields}/{@code $shift}) and
+     * sums the entries in between with a single range {@code $lookup}.
+     */
+    static List<Document> snapshotCheck(Date settledBefore) {
+        Document previous = new Document()
+                .append("prevSeq", new Document("$shift", new Document("output", "$seq").append("by", -1).append("default", 0L)))
+                .append("prevBalance", new Document("$shift", new Document("output", "$balance").append("by", -1).append("default", ZERO)));
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$setWindowFields", new Document("partitionBy", "$studentId")
+                .append("sortBy", new Document("seq", 1))
+                .append("output", previous)));
+        pipeline.add(new Document("$match", new Document("seq", new Document("$gt", 0L))
+                .append("createdAt", new Document("$lt", settledBefore))));
+        pipeline.addAll(tailLookup("$prevSeq", "$seq"));
+        pipeline.add(new Document("$set", new Document("expected", new Document("$add", List.of("$prevBalance", "$tail.sum")))
+                .append("entries", "$tail.count")
+                .append("expectedEntries", new Document("$subtract", List.of("$seq", "$prevSeq")))));
+        pipeline.addAll(mismatchesOnly());
+        return pipeline;
+    }
+
+    /** Compares each wallet head with its latest snapshot plus the entries after it. */
+    static List<Document> headCheck(Date settledBefore) {
+        Document latestSnapshot = new Document("from", "wallet_snapshots")
+                .append("localField", "studentId")
+                .append("foreignField", "studentId")
+                .append("pipeline", List.of(
+                        new Document("$sort", new Document("seq", -1)),
+                        new Document("$limit", 1)))
+                .append("as", "snapshot");
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", new Document("seq", new Document("$exists", true))
+                .append("updatedAt", new Document("$lt", settledBefore))));
+        pipeline.add(new Document("$lookup", latestSnapshot));
+        pipeline.add(new Document("$set", new Document("snapshot", new Document("$ifNull", List.of(
+                new Document("$first", "$snapshot"), new Document("seq", 0L).append("balance", ZERO))))));
+        pipeline.addAll(tailLookup("$snapshot.seq", "$seq"));
+        pipeline.add(new Document("$set", new Document("expected", new Document("$add", List.of("$snapshot.balance", "$tail.sum")))
+                .append("entries", "$tail.count")
+                .append("expectedEntries", new Document("$subtract", List.of("$seq", "$snapshot.seq")))));
+        pipeline.addAll(mismatchesOnly());
+        return pipeline;
+    }
+
+    /** Sum and count of the entries with {@code fromSeq < seq <= toSeq}, as {@code tail}. */
+    private static List<Document> tailLookup(String fromSeq, String toSeq) {
+        Document inRange = new Document("$expr", new Document("$and", List.of(
+                new Document("$gt", List.of("$seq", "$$fromSeq")),
+                new Document("$lte", List.of("$seq", "$$toSeq")))));
+        Document lookup = new Document("from", "wallet_transactions")
+                .append("localField", "studentId")
+                .append("foreignField", "studentId")
+                .append("let", new Document("fromSeq", fromSeq).append("toSeq", toSeq))
+                .append("pipeline", List.of(
+                        new Document("$match", inRange),
+                        new Document("$group", new Document("_id", null)
+                                .append("sum", new Document("$sum", "$amount"))
+                                .append("count", new Document("$sum", 1L)))))
+                .append("as", "tail");
+        Document emptyTail = new Document("sum", ZERO).append("count", 0L);
+        return List.of(
+                new Document("$lookup", lookup),
+                new Document("$set", new Document("tail", new Document("$ifNull", List.of(
+                        new Document("$first", "$tail"), emptyTail)))));
+    }
+
+    private static List<Document> mismatchesOnly() {
+        return List.of(
+                new Document("$match", new Document("$expr", new Document("$or", List.of(
+                        new Document("$ne", List.of("$balance", "$expected")),
+                        new Document("$ne", List.of("$entries", "$expectedEntries")))))),
+                new Document("$project", new Document("_id", 0).append("studentId", 1).append("seq", 1)
+                        .append("balance", 1).append("expected", 1).append("entries", 1).append("expectedEntries", 1)));
+    }
+
+    public record Report(List<Document> snapshotMismatches, List<Document> walletMismatches) {
+        public boolean isClean() {
+            return snapshotMismatches.isEmpty() && walletMismatches.isEmpty();
+        }
+    }
+}
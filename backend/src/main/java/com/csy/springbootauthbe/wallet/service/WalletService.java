@@ -1,102 +1,418 @@
 package com.csy.springbootauthbe.wallet.service;
 
+import com.csy.springbootauthbe.common.pagination.CursorPage;
+import com.csy.springbootauthbe.common.unitofwork.MongoUnitOfWork;
+import com.csy.springbootauthbe.wallet.dto.WalletMonthlySummary;
+import com.csy.springbootauthbe.wallet.dto.WalletTransactionQuery;
 import com.csy.springbootauthbe.wallet.entity.Wallet;
+import com.csy.springbootauthbe.wallet.entity.WalletSnapshot;
 import com.csy.springbootauthbe.wallet.entity.WalletTransaction;
 import com.csy.springbootauthbe.wallet.repository.WalletRepository;
+import com.csy.springbootauthbe.wallet.repository.WalletSnapshotRepository;
 import com.csy.springbootauthbe.wallet.repository.WalletTransactionRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * The wallet ledger ({@link WalletTransaction} entries with a per-wallet {@code seq}) is the
+ * source of truth for balances: a balance is the latest {@link WalletSnapshot} plus the sum of
+ * the entries after it.
+ * <p>
+ * Each balance change is a single findAndModify on the {@link Wallet} head document that
+ * {@code $inc}s the Decimal128 balance and the sequence together, guarded by
+ * {@code balance >= amount} for debits. The head is what serialises concurrent changes and
+ * hands out sequence numbers; the ledger entry is appended with the returned seq and
+ * balance, and every {@code wallet.snapshot-interval} entries a snapshot is written.
+ * WalletLedgerReconciler checks that heads, snapshots and entries agree.
+ */
 @Service
 @RequiredArgsConstructor
+@Timed("wallet.service")
 public class WalletService {
 
+    static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    // Written on release as a trace of a hold that was already counted, so left out of summaries
+    static final String TRACE_TYPE = "BOOKING_CONFIRMED";
+    private static final Sort HISTORY_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("_id"));
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+    private static final FindAndModifyOptions UPSERT_RETURN_NEW = FindAndModifyOptions.options().returnNew(true).upsert(true);
+
     private final WalletRepository walletRepo;
     private final WalletTransactionRepository txnRepo;
+    private final WalletSnapshotRepository snapshotRepo;
+    private final MongoTemplate mongoTemplate;
 
+    @Value("${wallet.snapshot-interval:100}")
+    private long snapshotInterval = 100;
+
+    /** The wallet with its balance computed from the ledger. */
     public Wallet getWallet(String userId) {
-        return walletRepo.findByStudentId(userId)
-                .orElseGet(() -> walletRepo.save(new Wallet(null, userId, BigDecimal.ZERO, "SGD", LocalDateTime.now())));
+        Wallet wallet = walletRepo.findByStudentId(userId)
+                .orElseGet(() -> credit(userId, BigDecimal.ZERO));
+        wallet.setBalance(ledgerBalance(userId));
+        return wallet;
+    }
+
+    /** Latest snapshot plus the entries appended after it. */
+    public BigDecimal ledgerBalance(String userId) {
+        WalletSnapshot snapshot = snapshotRepo.findFirstByStudentIdOrderBySeqDesc(userId).orElse(null);
+        BigDecimal balance = snapshot != null ? snapshot.getBalance() : BigDecimal.ZERO;
+        long fromSeq = snapshot != null ? snapshot.getSeq() : 0;
+        for (WalletTransaction entry : txnRepo.findByStudentIdAndSeqGreaterThan(userId, fromSeq)) {
+            balance = balance.add(entry.getAmount());
+        }
+        return balance;
     }
 
-    @Transactional
     public Wallet addCredits(String userId, BigDecimal amount, String refId) {
-        Wallet wallet = getWallet(userId);
-        wallet.setBalance(wallet.getBalance().add(amount));
-        wallet.setUpdatedAt(LocalDateTime.now());
-        walletRepo.save(wallet);
+        requirePositive(amount);
+        Wallet wallet = credit(userId, amount);
 
-        txnRepo.save(new WalletTransaction(null, userId, "PURCHASE", amount, "Top-up credits", refId, LocalDateTime.now()));
+        append(wallet, "PURCHASE", amount, "Top-up credits", refId);
         return wallet;
     }
 
-    @Transactional
     public Wallet deductCredits(String userId, BigDecimal amount, String bookingId) {
-        Wallet wallet = getWallet(userId);
-        if (wallet.getBalance().compareTo(amount) < 0) {
+        requirePositive(amount);
+        Wallet wallet = debit(userId, amount);
+        if (wallet == null) {
             throw new RuntimeException("Insufficient credits");
         }
 
-        wallet.setBalance(wallet.getBalance().subtract(amount));
-        wallet.setUpdatedAt(LocalDateTime.now());
-        walletRepo.save(wallet);
-
-        txnRepo.save(new WalletTransaction(null, userId, "BOOKING_DEDUCT", amount.negate(), "Booking charge", bookingId, LocalDateTime.now()));
+        append(wallet, "BOOKING_DEDUCT", amount.negate(), "Booking charge", bookingId);
         return wallet;
     }
 
     // ✅ NEW: Temporarily hold credits when booking created
-    @Transactional
     public Wallet holdCredits(String studentId, BigDecimal amount, String bookingId) {
-        Wallet wallet = getWallet(studentId);
-        if (wallet.getBalance().compareTo(amount) < 0) {
+        requirePositive(amount);
+        Wallet wallet = debit(studentId, amount);
+        if (wallet == null) {
             throw new RuntimeException("Insufficient credits to hold for booking");
         }
 
-        wallet.setBalance(wallet.getBalance().subtract(amount));
-        wallet.setUpdatedAt(LocalDateTime.now());
-        walletRepo.save(wallet);
-
-        txnRepo.save(new WalletTransaction(null, studentId, "BOOKING_HOLD", amount.negate(),
-                "Hold for booking ID: " + bookingId, bookingId, LocalDateTime.now()));
+        append(wallet, "BOOKING_HOLD", amount.negate(), "Hold for booking ID: " + bookingId, bookingId);
         return wallet;
     }
 
     // ✅ NEW: Release funds to tutor on acceptance
-    @Transactional
     public void releaseToTutor(String studentId, String tutorId, BigDecimal amount, String bookingId) {
-        // 1️⃣ Credit tutor
-        Wallet tutorWallet = getWallet(tutorId);
-        tutorWallet.setBalance(tutorWallet.getBalance().add(amount));
-        tutorWallet.setUpdatedAt(LocalDateTime.now());
-        walletRepo.save(tutorWallet);
+        releaseToTutor(studentId, tutorId, amount, bookingId, null);
+    }
 
-        txnRepo.save(new WalletTransaction(null, tutorId, "BOOKING_PAYMENT", amount,
-                "Payment received for booking ID: " + bookingId, bookingId, LocalDateTime.now()));
+    /**
+     * As above, within a unit-of-work flow. The ledger entry goes through {@code uow} only when
+     * it is transactional; otherwise it is written straight after the balance change, which is
+     * already committed, so a failed flush cannot leave the head without its entry.
+     */
+    public void releaseToTutor(String studentId, String tutorId, BigDecimal amount, String bookingId, MongoUnitOfWork uow) {
+        requirePositive(amount);
+        // 1️⃣ Credit tutor
+        Wallet tutorWallet = credit(tutorId, amount);
+        append(tutorWallet, "BOOKING_PAYMENT", amount, "Payment received for booking ID: " + bookingId, bookingId, uow);
 
-        // 2️⃣ Record final debit for student (for trace)
-        txnRepo.save(new WalletTransaction(null, studentId, "BOOKING_CONFIRMED", amount.negate(),
-                "Booking confirmed - funds transferred to tutor", bookingId, LocalDateTime.now()));
+        // 2️⃣ Record final debit for student (for trace). The hold already took the money,
+        // so this is a trace record outside the ledger sequence.
+        write(WalletTransaction.builder()
+                .studentId(studentId)
+                .type(TRACE_TYPE)
+                .amount(amount.negate())
+                .description("Booking confirmed - funds transferred to tutor")
+                .refId(bookingId)
+                .createdAt(LocalDateTime.now())
+                .build(), uow);
     }
 
     // ✅ NEW: Refund if cancelled or rejected
-    @Transactional
     public void refundStudent(String studentId, BigDecimal amount, String bookingId) {
-        Wallet wallet = getWallet(studentId);
-        wallet.setBalance(wallet.getBalance().add(amount));
-        wallet.setUpdatedAt(LocalDateTime.now());
-        walletRepo.save(wallet);
+        refundStudent(studentId, amount, bookingId, null);
+    }
+
+    /** As above, within a unit-of-work flow; see {@link #releaseToTutor(String, String, BigDecimal, String, MongoUnitOfWork)}. */
+    public void refundStudent(String studentId, BigDecimal amount, String bookingId, MongoUnitOfWork uow) {
+        requirePositive(amount);
+        Wallet wallet = credit(studentId, amount);
+
+        append(wallet, "BOOKING_REFUND", amount, "Refund for cancelled booking ID: " + bookingId, bookingId, uow);
+    }
+
+    /**
+     * The newest {@code limit} transactions (default and cap as for the history), for clients
+     * of the old unpaged listing. Later pages are only available through
+     * {@link #getTransactionHistory}.
+     */
+    public List<WalletTransaction> getTransactions(String userId, Integer limit) {
+        return getTransactionHistory(userId, WalletTransactionQuery.builder().limit(limit).build()).getItems();
+    }
+
+    /**
+     * Ledger history, newest first. {@code cursor} is the seq of the last entry of the
+     * previous page; trace records without a seq are not part of this view.
+     */
+    public CursorPage<WalletTransaction> getTransactionsPage(String userId, Long cursor, Integer limit) {
+        int size = pageSize(limit);
+        long before = cursor != null ? cursor : Long.MAX_VALUE;
+        // One extra row tells whether another page exists without a count query
+        List<WalletTransaction> rows = txnRepo.findByStudentIdAndSeqLessThanOrderBySeqDesc(
+                userId, before, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<WalletTransaction> page = hasMore ? rows.subList(0, size) : rows;
+        return CursorPage.<WalletTransaction>builder()
+                .items(page)
+                .nextCursor(hasMore ? String.valueOf(page.get(page.size() - 1).getSeq()) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Full transaction history including trace records, newest first, keyset-paginated on
+     * (createdAt, _id) and optionally filtered by type and date range. Served by
+     * student_created_idx, or student_type_created_idx when filtering by type.
+     */
+    public CursorPage<WalletTransaction> getTransactionHistory(String userId, WalletTransactionQuery listQuery) {
+        WalletTransactionQuery q = listQuery != null ? listQuery : new WalletTransactionQuery();
+        int size = pageSize(q.getLimit());
+        Criteria criteria = historyCriteria(userId, q);
+        if (q.getCursor() != null && !q.getCursor().isBlank()) {
+            HistoryCursor after = HistoryCursor.parse(q.getCursor());
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt()),
+                    Criteria.where("createdAt").is(after.createdAt()).and("_id").lt(after.id()));
+        }
+        // One extra row tells whether another page exists without a count query
+        Query query = Query.query(criteria).with(HISTORY_ORDER).limit(size + 1);
+        List<WalletTransaction> rows = mongoTemplate.find(query, WalletTransaction.class);
+        boolean hasMore = rows.size() > size;
+        List<WalletTransaction> page = hasMore ? rows.subList(0, size) : rows;
+        return CursorPage.<WalletTransaction>builder()
+                .items(page)
+                .nextCursor(hasMore ? HistoryCursor.of(page.get(page.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Credits, debits and per-type totals per calendar month, newest month first, computed
+     * in one aggregation. The cursor and limit of {@code listQuery} are ignored.
+     */
+    public List<WalletMonthlySummary> getMonthlySummary(String userId, WalletTransactionQuery listQuery) {
+        WalletTransactionQuery q = listQuery != null ? listQuery : new WalletTransactionQuery();
+        Criteria criteria = historyCriteria(userId, q);
+        if (q.getType() == null || q.getType().isEmpty()) {
+            criteria = criteria.and("type").ne(TRACE_TYPE);
+        }
+        // Amounts written before the ledger used Decimal128 are strings, so convert before summing
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.project("type")
+                        .and(DateOperators.dateOf("createdAt")
+                                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()))
+                                .toString("%Y-%m")).as("month")
+                        .and(ConvertOperators.valueOf("amount").convertToDecimal()).as("amount"),
+                Aggregation.group("month", "type")
+                        .sum("amount").as("amount")
+                        .count().as("count")
+                        .sum(ConditionalOperators.when(ComparisonOperators.valueOf("amount").greaterThanValue(0))
+                                .thenValueOf("amount").otherwise(0)).as("credits")
+                        .sum(ConditionalOperators.when(ComparisonOperators.valueOf("amount").lessThanValue(0))
+                                .thenValueOf("amount").otherwise(0)).as("debits"),
+                Aggregation.group("month")
+                        .sum("amount").as("net")
+                        .sum("count").as("count")
+                        .sum("credits").as("credits")
+                        .sum("debits").as("debits")
+                        .push(new Document("type", "$_id.type").append("amount", "$amount").append("count", "$count"))
+                        .as("types"),
+                Aggregation.sort(Sort.Direction.DESC, "_id"));
+
+        List<WalletMonthlySummary> months = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, WalletTransaction.class, Document.class).getMappedResults()) {
+            List<WalletMonthlySummary.TypeTotal> types = new ArrayList<>();
+            for (Document type : row.getList("types", Document.class, List.of())) {
+                types.add(WalletMonthlySummary.TypeTotal.builder()
+                        .type(type.getString("type"))
+                        .amount(decimal(type.get("amount")))
+                        .count(((Number) type.get("count")).longValue())
+                        .build());
+            }
+            months.add(WalletMonthlySummary.builder()
+                    .month(row.getString("_id"))
+                    .credits(decimal(row.get("credits")))
+                    .debits(decimal(row.get("debits")))
+                    .net(decimal(row.get("net")))
+                    .count(((Number) row.get("count")).longValue())
+                    .types(types)
+                    .build());
+        }
+        return months;
+    }
+
+    private static Criteria historyCriteria(String userId, WalletTransactionQuery q) {
+        Criteria criteria = Criteria.where("studentId").is(userId);
+        if (q.getType() != null && !q.getType().isEmpty()) {
+            criteria = criteria.and("type").in(q.getType());
+        }
+        if (q.getFrom() != null || q.getTo() != null) {
+            Criteria createdAt = criteria.and("createdAt");
+            if (q.getFrom() != null) {
+                createdAt.gte(q.getFrom().atStartOfDay());
+            }
+            if (q.getTo() != null) {
+                createdAt.lt(q.getTo().plusDays(1).atStartOfDay());
+            }
+        }
+        return criteria;
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value instanceof Decimal128 d) {
+            return d.bigDecimalValue();
+        }
+        return value == null ? BigDecimal.ZERO : new BigDecimal(value.toString());
+    }
+
+    /** Position in the history: createdAt (ISO, millisecond precision as stored) and _id, joined by '_'. */
+    record HistoryCursor(LocalDateTime createdAt, ObjectId id) {
+
+        static String of(WalletTransaction last) {
+            return last.getCreatedAt() + "_" + last.getId();
+        }
+
+        static HistoryCursor parse(String cursor) {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                String id = cursor.substring(separator + 1);
+                if (separator < 0 || !ObjectId.isValid(id)) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+                return new HistoryCursor(LocalDateTime.parse(cursor.substring(0, separator)), new ObjectId(id));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+
+    /** Adds to the balance and takes the next seq, creating the wallet on first use. */
+    private Wallet credit(String userId, BigDecimal amount) {
+        Query query = Query.query(Criteria.where("studentId").is(userId));
+        Update update = new Update()
+                .inc("balance", new Decimal128(amount))
+                .set("updatedAt", LocalDateTime.now())
+                .setOnInsert("currency", "SGD");
+        // Opening a wallet is not a ledger entry, so it does not take a sequence number
+        update = amount.signum() == 0 ? update.setOnInsert("seq", 0L) : update.inc("seq", 1);
+        try {
+            return mongoTemplate.findAndModify(query, update, UPSERT_RETURN_NEW, Wallet.class);
+        } catch (DuplicateKeyException e) {
+            // Lost an upsert race for a brand-new wallet; it exists now, so a plain update applies
+            return mongoTemplate.findAndModify(query, update, RETURN_NEW, Wallet.class);
+        }
+    }
+
+    /** Subtracts from the balance only if it covers the amount; null when it does not (or no wallet exists). */
+    private Wallet debit(String userId, BigDecimal amount) {
+        Decimal128 value = new Decimal128(amount);
+        Query query = Query.query(Criteria.where("studentId").is(userId).and("balance").gte(value));
+        Update update = new Update()
+                .inc("balance", new Decimal128(amount.negate()))
+                .inc("seq", 1)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.findAndModify(query, update, RETURN_NEW, Wallet.class);
+    }
+
+    private void append(Wallet head, String type, BigDecimal amount, String description, String refId) {
+        append(head, type, amount, description, refId, null);
+    }
+
+    /**
+     * Appends the entry for the change that produced {@code head}, snapshotting on interval
+     * boundaries. The entry joins {@code uow} only inside a transaction, where it commits or
+     * aborts together with the {@code $inc}; snapshots are never batched, since a duplicate
+     * must be tolerated rather than fail a whole bulk write.
+     */
+    private void append(Wallet head, String type, BigDecimal amount, String description, String refId, MongoUnitOfWork uow) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean transactional = uow != null && uow.isTransactional();
+        write(WalletTransaction.builder()
+                .studentId(head.getStudentId())
+                .seq(head.getSeq())
+                .type(type)
+                .amount(amount)
+                .balanceAfter(head.getBalance())
+                .description(description)
+                .refId(refId)
+                .createdAt(now)
+                .build(), transactional ? uow : null);
 
-        txnRepo.save(new WalletTransaction(null, studentId, "BOOKING_REFUND", amount,
-                "Refund for cancelled booking ID: " + bookingId, bookingId, LocalDateTime.now()));
+        if (head.getSeq() % snapshotInterval == 0) {
+            snapshot(head, now, transactional);
+        }
     }
 
-    public List<WalletTransaction> getTransactions(String userId) {
-        return txnRepo.findByStudentIdOrderByCreatedAtDesc(userId);
+    private void snapshot(Wallet head, LocalDateTime now, boolean transactional) {
+        if (transactional) {
+            // A duplicate key error would abort the whole transaction, so only insert if absent
+            Query existing = Query.query(Criteria.where("studentId").is(head.getStudentId()).and("seq").is(head.getSeq()));
+            Update balance = new Update()
+                    .setOnInsert("balance", new Decimal128(head.getBalance()))
+                    .setOnInsert("createdAt", now);
+            mongoTemplate.upsert(existing, balance, WalletSnapshot.class);
+            return;
+        }
+        try {
+            snapshotRepo.insert(WalletSnapshot.builder()
+                    .studentId(head.getStudentId())
+                    .seq(head.getSeq())
+                    .balance(head.getBalance())
+                    .createdAt(now)
+                    .build());
+        } catch (DuplicateKeyException ignored) {
+            // Already written, e.g. by the reconciler repairing a missing snapshot
+        }
+    }
+
+    private void write(WalletTransaction entry, MongoUnitOfWork uow) {
+        if (uow != null) {
+            uow.insert(entry);
+        } else {
+            txnRepo.save(entry);
+        }
+    }
+
+    private static void requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new RuntimeException("Amount must be positive");
+        }
     }
 }
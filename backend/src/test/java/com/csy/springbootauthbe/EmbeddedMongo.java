@@ -0,0 +1,108 @@
+package com.csy.springbootauthbe;
+
+import com.csy.springbootauthbe.config.MongoConfig;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * One embedded mongod (the same version the load test uses) shared by every test in the
+ * JVM, for tests that need real query planning, atomic updates or aggregation semantics.
+ * Each caller gets a freshly dropped database and a MongoTemplate mapped like the
+ * application's, without the Spring context.
+ * <p>
+ * The first use downloads mongod from fastdl.mongodb.org unless it is already cached in
+ * ~/.embedmongo. Where that is impossible (offline build), the calling test is aborted,
+ * i.e. reported as skipped, rather than failed.
+ */
+public final class EmbeddedMongo {
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient client;
+    private static String unavailable;
+
+    private EmbeddedMongo() {
+    }
+
+    public static synchronized MongoTemplate template(String database) {
+        if (client == null && unavailable == null) {
+            try {
+                mongod = Mongod.instance().start(Version.Main.V6_0);
+            } catch (RuntimeException e) {
+                unavailable = String.valueOf(rootCause(e).getMessage());
+            }
+        }
+        if (unavailable != null) {
+            Assumptions.abort("Embedded MongoDB could not be started: " + unavailable);
+        }
+        if (client == null) {
+            ServerAddress address = mongod.current().getServerAddress();
+            client = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                client.close();
+                mongod.close();
+            }));
+        }
+        client.getDatabase(database).drop();
+
+        SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client, database);
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(documentClasses());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(factory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return new MongoTemplate(factory, converter);
+    }
+
+    /** Creates the indexes declared on {@code types}, which index auto-creation would otherwise leave out. */
+    public static void createIndexes(MongoTemplate mongoTemplate, Class<?>... types) {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : types) {
+            resolver.resolveIndexFor(type).forEach(mongoTemplate.indexOps(type)::ensureIndex);
+        }
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /** Every {@code @Document} class of the application, so index checks see all declared indexes. */
+    private static Set<Class<?>> documentClasses() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Document.class));
+        Set<Class<?>> classes = new HashSet<>();
+        for (var candidate : scanner.findCandidateComponents("com.csy.springbootauthbe")) {
+            try {
+                classes.add(Class.forName(candidate.getBeanClassName()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,227 @@
+package com.csy.springbootauthbe.admin.service;
+
+import com.csy.springbootauthbe.admin.dto.AdminDashboardDTO;
+import com.csy.springbootauthbe.admin.dto.AdminListQuery;
+import com.csy.springbootauthbe.admin.entity.Admin;
+import com.csy.springbootauthbe.admin.entity.Permissions;
+import com.csy.springbootauthbe.admin.mapper.AdminMapper;
+import com.csy.springbootauthbe.admin.repository.AdminRepository;
+import com.csy.springbootauthbe.common.pagination.CursorPage;
+import com.csy.springbootauthbe.common.wrapper.PrincipalCache;
+import com.csy.springbootauthbe.student.entity.Student;
+import com.csy.springbootauthbe.student.repository.StudentRepository;
+import com.csy.springbootauthbe.tutor.dto.TutorDTO;
+import com.csy.springbootauthbe.tutor.entity.Tutor;
+import com.csy.springbootauthbe.tutor.repository.TutorRepository;
+import com.csy.springbootauthbe.user.entity.AccountStatus;
+import com.csy.springbootauthbe.user.entity.Role;
+import com.csy.springbootauthbe.user.entity.User;
+import com.csy.springbootauthbe.user.repository.UserRepository;
+import com.csy.springbootauthbe.user.utils.UserResponse;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AdminServiceImplTest {
+
+    @Mock AdminMapper adminMapper;
+    @Mock AdminRepository adminRepository;
+    @Mock UserRepository userRepository;
+    @Mock StudentRepository studentRepository;
+    @Mock TutorRepository tutorRepository;
+    @Mock PrincipalCache principalCache;
+    @Mock MongoTemplate mongoTemplate;
+    @Mock DashboardCounterService dashboardCounterService;
+
+    @InjectMocks AdminServiceImpl service;
+
+    private static final String ADMIN_ID = "A1";
+
+    @BeforeEach
+    void setUp() {
+        User adminUser = User.builder().id(ADMIN_ID).role(Role.ADMIN).status(AccountStatus.ACTIVE).build();
+        Admin adminProfile = Admin.builder().userId(ADMIN_ID).permissions(List.of(Permissions.values())).build();
+        when(userRepository.findById(ADMIN_ID)).thenReturn(Optional.of(adminUser));
+        when(adminRepository.findByUserId(ADMIN_ID)).thenReturn(Optional.of(adminProfile));
+    }
+
+    /* Round trips must not grow with the number of listed users */
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 10_000})
+    void viewStudents_roundTripsStayFlat(int rows) {
+        List<User> users = users(rows, Role.STUDENT);
+        when(userRepository.findAllByRole(Role.STUDENT)).thenReturn(users);
+        when(studentRepository.findAllByUserIdIn(any())).thenReturn(users.stream()
+                .map(u -> Student.builder().userId(u.getId()).studentNumber("S" + u.getId()).build())
+                .toList());
+
+        long start = System.nanoTime();
+        List<UserResponse> result = service.viewStudents(ADMIN_ID);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(rows, result.size());
+        assertEquals("S" + users.get(0).getId(), result.get(0).getStudent().getStudentNumber());
+        verify(studentRepository, never()).findByUserId(anyString());
+        assertEquals(4, roundTrips(), "round trips for " + rows + " rows (" + elapsedMs + " ms)");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 10_000})
+    void viewTutors_roundTripsStayFlat(int rows) {
+        List<User> users = users(rows, Role.TUTOR);
+        when(userRepository.findAllByRole(Role.TUTOR)).thenReturn(users);
+        // One tutor profile missing: that user must be skipped, as before
+        when(tutorRepository.findAllByUserIdIn(any())).thenReturn(users.stream()
+                .skip(1)
+                .map(u -> Tutor.builder().userId(u.getId()).subject("Math").build())
+                .toList());
+
+        List<TutorDTO> result = service.viewTutors(ADMIN_ID);
+
+        assertEquals(rows - 1, result.size());
+        verify(tutorRepository, never()).findByUserId(anyString());
+        assertEquals(4, roundTrips());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 10_000})
+    void viewAdmins_roundTripsStayFlat(int rows) {
+        List<User> users = users(rows, Role.ADMIN);
+        when(userRepository.findAllByRole(Role.ADMIN)).thenReturn(users);
+        when(adminRepository.findAllByUserIdIn(any())).thenReturn(users.stream()
+                .map(u -> Admin.builder().userId(u.getId()).permissions(List.of(Permissions.VIEW_ADMIN)).build())
+                .toList());
+
+        List<UserResponse> result = service.viewAdmins(ADMIN_ID);
+
+        assertEquals(rows, result.size());
+        assertNotNull(result.get(rows - 1).getAdmin());
+        // only the permission check goes through findByUserId
+        verify(adminRepository, times(1)).findByUserId(anyString());
+        assertEquals(4, roundTrips());
+    }
+
+    @Test
+    void viewStudentsPage_capsLimit_andReturnsCursorOfLastRow() {
+        List<User> users = users(201, Role.STUDENT);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(queryCaptor.capture(), eq(User.class))).thenReturn(users);
+        when(studentRepository.findAllByUserIdIn(any())).thenReturn(List.of());
+
+        CursorPage<UserResponse> page = service.viewStudentsPage(ADMIN_ID,
+                AdminListQuery.builder().limit(5_000).status(AccountStatus.ACTIVE).build());
+
+        assertEquals(200, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals("U199", page.getNextCursor());
+        // one extra row is requested to detect the next page
+        assertEquals(201, queryCaptor.getValue().getLimit());
+        assertEquals(AccountStatus.ACTIVE, queryCaptor.getValue().getQueryObject().get("status"));
+    }
+
+    @Test
+    void viewStudentsPage_lastPage_hasNoCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(users(3, Role.STUDENT));
+        when(studentRepository.findAllByUserIdIn(any())).thenReturn(List.of());
+
+        CursorPage<UserResponse> page = service.viewStudentsPage(ADMIN_ID, new AdminListQuery());
+
+        assertEquals(3, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void viewStudentsPage_rejectsMalformedCursor() {
+        AdminListQuery query = AdminListQuery.builder().cursor("not-an-id").build();
+
+        assertThrows(IllegalArgumentException.class, () -> service.viewStudentsPage(ADMIN_ID, query));
+    }
+
+    @Test
+    void getDashboardSummary_readsMaterializedCounters() {
+        when(dashboardCounterService.currentCounts()).thenReturn(Map.of(
+                "STUDENT:ACTIVE", 7,
+                "STUDENT:SUSPENDED", 2,
+                "TUTOR:ACTIVE", 3,
+                "TUTOR:UNVERIFIED", 4,
+                "TUTOR:PENDING_APPROVAL", 1,
+                "ADMIN:ACTIVE", 1));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("users"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+        AdminDashboardDTO dashboard = service.getDashboardSummary(ADMIN_ID);
+
+        assertEquals(18, dashboard.getTotalUsers());
+        assertEquals(11, dashboard.getActiveUsers());
+        assertEquals(2, dashboard.getSuspendedUsers());
+        assertEquals(8, dashboard.getTotalTutors());
+        assertEquals(4, dashboard.getUnverifiedTutors());
+        assertEquals(9, dashboard.getTotalStudents());
+        assertEquals(1, dashboard.getActiveAdmins());
+        assertTrue(dashboard.getPendingTutors().isEmpty());
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).findAllByRole(any());
+        verify(tutorRepository, never()).findByUserId(anyString());
+    }
+
+    @Test
+    void suspendStudent_movesCounterFromActiveToSuspended() {
+        User student = User.builder().id("S1").email("s1@x.com").role(Role.STUDENT).status(AccountStatus.ACTIVE).build();
+        when(userRepository.findById("S1")).thenReturn(Optional.of(student));
+
+        service.suspendStudent(ADMIN_ID, "S1");
+
+        assertEquals(AccountStatus.SUSPENDED, student.getStatus());
+        verify(userRepository).save(student);
+        verify(principalCache).evict("s1@x.com");
+        verify(dashboardCounterService).recordTransition(Role.STUDENT, AccountStatus.ACTIVE, AccountStatus.SUSPENDED);
+    }
+
+    private List<User> users(int count, Role role) {
+        List<User> users = new ArrayList<>(count);
+        IntStream.range(0, count).forEach(i -> users.add(User.builder()
+                .id("U" + i)
+                .firstname("First" + i)
+                .lastname("Last" + i)
+                .email("u" + i + "@x.com")
+                .role(role)
+                .status(AccountStatus.ACTIVE)
+                .build()));
+        return users;
+    }
+
+    private long roundTrips() {
+        return mockingDetails(userRepository).getInvocations().size()
+                + mockingDetails(adminRepository).getInvocations().size()
+                + mockingDetails(studentRepository).getInvocations().size()
+                + mockingDetails(tutorRepository).getInvocations().size();
+    }
+}
@@ -0,0 +1,107 @@
+package com.csy.springbootauthbe.admin.service;
+
+import com.csy.springbootauthbe.admin.entity.DashboardCounters;
+import com.csy.springbootauthbe.user.entity.AccountStatus;
+import com.csy.springbootauthbe.user.entity.Role;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardCounterServiceTest {
+
+    @Mock MongoTemplate mongoTemplate;
+
+    @InjectMocks DashboardCounterService service;
+
+    @Test
+    void recordTransition_incrementsBothBucketsInOneUpdate() {
+        service.recordTransition(Role.TUTOR, AccountStatus.UNVERIFIED, AccountStatus.ACTIVE);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(DashboardCounters.class));
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(DashboardCounters.class));
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(-1L, inc.get("counts.TUTOR.UNVERIFIED"));
+        assertEquals(1L, inc.get("counts.TUTOR.ACTIVE"));
+    }
+
+    @Test
+    void recordDeleted_decrementsTheUsersBucket() {
+        service.recordDeleted(Role.STUDENT, AccountStatus.ACTIVE);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(DashboardCounters.class));
+        assertEquals(new Document("counts.STUDENT.ACTIVE", -1L), update.getValue().getUpdateObject().get("$inc"));
+    }
+
+    @Test
+    void countersThatDoNotExistYet_areRebuiltOnReadRatherThanStartedByAnIncrement() {
+        service.recordCreated(Role.STUDENT, AccountStatus.ACTIVE);
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(DashboardCounters.class));
+
+        Document row = new Document("_id", new Document("role", "STUDENT").append("status", "ACTIVE"))
+                .append("count", 42);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("users"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(row), new Document()));
+
+        assertEquals(42, service.currentCounts().get("STUDENT:ACTIVE"));
+    }
+
+    @Test
+    void recordTransition_sameStatus_isNoOp() {
+        service.recordTransition(Role.STUDENT, AccountStatus.ACTIVE, AccountStatus.ACTIVE);
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void currentCounts_readsSingleDocument() {
+        when(mongoTemplate.findById(DashboardCounterService.USER_COUNTERS_ID, DashboardCounters.class))
+                .thenReturn(DashboardCounters.builder()
+                        .counts(Map.of("STUDENT", Map.of("ACTIVE", 5L)))
+                        .build());
+
+        Map<String, Integer> counts = service.currentCounts();
+
+        assertEquals(5, counts.get("STUDENT:ACTIVE"));
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), anyString(), any());
+    }
+
+    @Test
+    void reconcileNow_rebuildsFromUsersAndOverwritesDrift() {
+        when(mongoTemplate.findById(DashboardCounterService.USER_COUNTERS_ID, DashboardCounters.class))
+                .thenReturn(DashboardCounters.builder()
+                        .counts(Map.of("STUDENT", Map.of("ACTIVE", 9L)))
+                        .build());
+        Document row = new Document("_id", new Document("role", "STUDENT").append("status", "ACTIVE"))
+                .append("count", 7);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("users"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(row), new Document()));
+
+        Map<String, Integer> counts = service.reconcileNow();
+
+        assertEquals(7, counts.get("STUDENT:ACTIVE"));
+        ArgumentCaptor<DashboardCounters> saved = ArgumentCaptor.forClass(DashboardCounters.class);
+        verify(mongoTemplate).save(saved.capture());
+        assertEquals(7L, saved.getValue().getCounts().get("STUDENT").get("ACTIVE"));
+        assertNotNull(saved.getValue().getReconciledAt());
+    }
+}
@@ -0,0 +1,321 @@
+package com.csy.springbootauthbe.booking.service;
+
+import com.csy.springbootauthbe.booking.dto.BookingDTO;
+import com.csy.springbootauthbe.booking.dto.BookingRequest;
+import com.csy.springbootauthbe.booking.dto.RecentBookingResponse;
+import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.booking.entity.BookingStatus;
+import com.csy.springbootauthbe.booking.mapper.BookingMapper;
+import com.csy.springbootauthbe.booking.repository.BookingRepository;
+import com.csy.springbootauthbe.common.schedule.SlotConflictService;
+import com.csy.springbootauthbe.common.unitofwork.MongoUnitOfWork;
+import com.csy.springbootauthbe.common.unitofwork.UnitOfWorkRunner;
+import com.csy.springbootauthbe.notification.service.NotificationService;
+import com.csy.springbootauthbe.user.service.UserDisplayNameService;
+import com.csy.springbootauthbe.wallet.service.WalletService;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BookingServiceImplTest {
+
+    @Mock BookingRepository bookingRepository;
+    @Mock UserDisplayNameService userDisplayNameService;
+    @Mock BookingMapper bookingMapper;
+    @Mock NotificationService notificationService;
+    @Mock WalletService walletService;
+    @Mock SlotConflictService slotConflictService;
+    @Mock SlotReservationService slotReservationService;
+    @Mock BookingTimeMigration bookingTimeMigration;
+    @Mock MongoTemplate mongoTemplate;
+    @Mock MongoConverter converter;
+    @Mock UnitOfWorkRunner unitOfWorkRunner;
+    @Mock MongoUnitOfWork uow;
+
+    @InjectMocks BookingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(converter.read(eq(Booking.class), any(Document.class))).thenAnswer(inv -> new Booking());
+        when(bookingMapper.toDto(any(Booking.class))).thenAnswer(inv -> new BookingDTO());
+        when(bookingTimeMigration.isComplete()).thenReturn(true);
+        // Mutable like the real result, so looking up the null ids of bare bookings is allowed
+        when(userDisplayNameService.displayNames(any())).thenAnswer(inv -> new HashMap<String, String>());
+        when(unitOfWorkRunner.run(any(), any())).thenAnswer(inv -> inv.<Function<MongoUnitOfWork, Object>>getArgument(1).apply(uow));
+    }
+
+    /**
+     * Benchmark-style check across booking volumes: however many bookings match, one aggregation
+     * runs, the repository is never asked for the full list, and at most five bookings are
+     * materialized in the app. Memory per call is therefore bounded by the summary size.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {0, 3, 500, 100_000})
+    void getUpcomingBookings_materializesAtMostFive_whateverTheVolume(int volume) {
+        stubFacet(volume);
+
+        RecentBookingResponse response = service.getUpcomingBookings("T1");
+
+        assertEquals(volume, response.getTotalCount());
+        assertEquals(Math.min(5, volume), response.getRecentSessions().size());
+        verify(converter, times(Math.min(5, volume))).read(eq(Booking.class), any(Document.class));
+        verifyNoInteractions(bookingRepository);
+
+        // The cap has to be in the pipeline itself, not applied after fetching
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate, times(1)).aggregate(captor.capture(), eq("bookings"), eq(Document.class));
+        List<Document> pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(3, pipeline.size());
+        Document match = pipeline.get(0).get("$match", Document.class);
+        assertEquals("T1", match.get("tutorId"));
+        assertTrue(match.containsKey("startMinute"));
+        assertEquals(new Document("startMinute", 1), pipeline.get(1).get("$sort"));
+        Document facet = pipeline.get(2).get("$facet", Document.class);
+        assertEquals(List.of(new Document("$limit", 5L)), facet.get("sessions"));
+        assertEquals(List.of(new Document("$count", "total")), facet.get("total"));
+    }
+
+    @Test
+    void getRecentPastBookings_pushesSortAndLimitIntoOneFacetPipeline() {
+        stubFacet(42);
+
+        RecentBookingResponse response = service.getRecentPastBookings("T1");
+
+        assertEquals(42, response.getTotalCount());
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq("bookings"), eq(Document.class));
+        List<Document> pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+        Document match = pipeline.get(0).get("$match", Document.class);
+        assertEquals("T1", match.get("tutorId"));
+        assertEquals("confirmed", match.get("status"));
+        assertTrue(match.containsKey("startMinute"));
+        assertEquals(new Document("startMinute", -1), pipeline.get(1).get("$sort"));
+        Document facet = pipeline.get(2).get("$facet", Document.class);
+        assertEquals(List.of(new Document("$limit", 5L)), facet.get("sessions"));
+    }
+
+    @Test
+    void getRecentPastBookings_usesDateStringsUntilMigrationCompletes() {
+        when(bookingTimeMigration.isComplete()).thenReturn(false);
+        stubFacet(1);
+
+        service.getRecentPastBookings("T1");
+
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq("bookings"), eq(Document.class));
+        Document match = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).get(0).get("$match", Document.class);
+        assertTrue(match.containsKey("date"));
+        assertFalse(match.containsKey("startMinute"));
+    }
+
+    @Test
+    void getBookingsForStudent_sortsInMongo_andResolvesNamesInOneLookup() {
+        List<Booking> bookings = List.of(
+                Booking.builder().id("B1").studentId("S1").tutorId("T1").build(),
+                Booking.builder().id("B2").studentId("S1").tutorId("T2").build());
+        when(bookingRepository.findByStudentId(eq("S1"), any(Sort.class))).thenReturn(bookings);
+        when(bookingMapper.toDto(any(Booking.class))).thenAnswer(inv -> new BookingDTO());
+        when(userDisplayNameService.displayNames(Set.of("S1", "T1", "T2")))
+                .thenReturn(Map.of("S1", "Sam Student", "T1", "Tia Tutor", "T2", "Tom Tutor"));
+
+        List<BookingDTO> result = service.getBookingsForStudent("S1");
+
+        assertEquals(List.of("Tia Tutor", "Tom Tutor"), result.stream().map(BookingDTO::getTutorName).toList());
+        assertEquals("Sam Student", result.get(0).getStudentName());
+        ArgumentCaptor<Sort> sort = ArgumentCaptor.forClass(Sort.class);
+        verify(bookingRepository).findByStudentId(eq("S1"), sort.capture());
+        assertEquals(Sort.by("date", "start"), sort.getValue());
+        verify(userDisplayNameService, times(1)).displayNames(any());
+    }
+
+    @Test
+    void getBookingsForStudent_pageSizeIsCapped() {
+        when(bookingRepository.findByStudentId(eq("S1"), any(Pageable.class))).thenReturn(List.of());
+
+        service.getBookingsForStudent("S1", 2, 10_000);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(bookingRepository).findByStudentId(eq("S1"), pageable.capture());
+        assertEquals(PageRequest.of(2, 200, Sort.by("date", "start")), pageable.getValue());
+    }
+
+    @Test
+    void acceptBooking_claimsTheStatusBeforeMovingMoney() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Booking.class)))
+                .thenReturn(booking(BookingStatus.PENDING));
+
+        service.acceptBooking("B1");
+
+        ArgumentCaptor<Query> claim = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        var order = inOrder(mongoTemplate, walletService);
+        order.verify(mongoTemplate).findAndModify(claim.capture(), update.capture(), eq(Booking.class));
+        order.verify(walletService).releaseToTutor("S1", "T1", new BigDecimal("30"), "B1", uow);
+        assertEquals(new Document("$in", List.of("pending")), claim.getValue().getQueryObject().get("status"));
+        assertEquals("confirmed", update.getValue().getUpdateObject().get("$set", Document.class).get("status"));
+        verify(notificationService).createNotification(eq("S1"), eq("booking_accepted"), eq("B1"), any(), eq(uow));
+        verify(uow, never()).save(any());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void acceptBooking_thatWasAlreadyClaimed_movesNoMoney() {
+        // A retry, or the loser of two concurrent accepts: the guarded update matches nothing
+        when(bookingRepository.findById("B1")).thenReturn(Optional.of(booking(BookingStatus.CONFIRMED)));
+
+        assertThrows(RuntimeException.class, () -> service.acceptBooking("B1"));
+
+        verifyNoInteractions(walletService);
+        verify(notificationService, never()).createNotification(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void cancelBooking_refundsOnTheReplacedStatus_andFreesTheSlotOnlyAfterTheFlow() {
+        Booking booking = booking(BookingStatus.PENDING);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Booking.class))).thenReturn(booking);
+
+        service.cancelBooking("B1", "T1");
+
+        assertEquals(BookingStatus.CANCELLED, booking.getStatus());
+        verify(walletService).refundStudent("S1", new BigDecimal("30"), "B1", uow);
+        ArgumentCaptor<Runnable> afterCommit = ArgumentCaptor.forClass(Runnable.class);
+        verify(uow).afterCommit(afterCommit.capture());
+        verifyNoInteractions(slotReservationService);
+
+        afterCommit.getValue().run();
+        verify(slotReservationService).release(booking);
+        verify(slotConflictService).invalidate("T1", "2030-01-07");
+    }
+
+    @Test
+    void cancelBooking_thatWasAlreadyCancelled_refundsNothing() {
+        when(bookingRepository.findById("B1")).thenReturn(Optional.of(booking(BookingStatus.CANCELLED)));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.cancelBooking("B1", "T1"));
+
+        assertEquals("Booking is already cancelled", e.getMessage());
+        verifyNoInteractions(walletService);
+    }
+
+    @Test
+    void createBooking_failingSave_refundsTheHoldAndFreesTheSlot() {
+        when(slotReservationService.reserve("T1", "2030-01-07", "10:00", "10:30")).thenReturn("LOCK-1");
+        when(bookingMapper.toEntity(any(BookingRequest.class))).thenAnswer(inv -> new Booking());
+        when(bookingRepository.save(any(Booking.class))).thenThrow(new RuntimeException("write failed"));
+        BookingRequest request = BookingRequest.builder().tutorId("T1").studentId("S1").amount(new BigDecimal("30"))
+                .date("2030-01-07").start("10:00").end("10:30").build();
+
+        assertThrows(RuntimeException.class, () -> service.createBooking(request));
+
+        // The hold references the booking id it was taken for, and the refund gives it back under the same id
+        ArgumentCaptor<String> holdRef = ArgumentCaptor.forClass(String.class);
+        verify(walletService).holdCredits(eq("S1"), eq(new BigDecimal("30")), holdRef.capture());
+        verify(bookingRepository).save(argThat(b -> holdRef.getValue().equals(b.getId())));
+        verify(walletService).refundStudent("S1", new BigDecimal("30"), holdRef.getValue());
+        verify(slotReservationService).release("T1", "2030-01-07", "10:00", "10:30", "LOCK-1");
+    }
+
+    @Test
+    void createBooking_failedHold_refundsNothing() {
+        when(slotReservationService.reserve(any(), any(), any(), any())).thenReturn("LOCK-1");
+        when(walletService.holdCredits(any(), any(), any())).thenThrow(new RuntimeException("Insufficient credits"));
+        BookingRequest request = BookingRequest.builder().tutorId("T1").studentId("S1").amount(new BigDecimal("30"))
+                .date("2030-01-07").start("10:00").end("10:30").build();
+
+        assertThrows(RuntimeException.class, () -> service.createBooking(request));
+
+        verify(walletService, never()).refundStudent(any(), any(), any());
+        verify(slotReservationService).release("T1", "2030-01-07", "10:00", "10:30", "LOCK-1");
+    }
+
+    @Test
+    void requestReschedule_failingWrite_releasesTheNewSlotAndKeepsTheOldOne() {
+        Booking current = booking(BookingStatus.CONFIRMED);
+        when(bookingRepository.findById("B1")).thenReturn(Optional.of(current));
+        when(slotReservationService.reserve("T1", "2030-01-08", "11:00", "11:30")).thenReturn("LOCK-2");
+        when(bookingMapper.toEntity(any(BookingRequest.class))).thenAnswer(inv -> Booking.builder().id("B2").build());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> {
+            Booking saved = inv.getArgument(0);
+            if ("B1".equals(saved.getId())) throw new RuntimeException("write failed");
+            return saved;
+        });
+        BookingRequest request = BookingRequest.builder().tutorId("T1").studentId("S1")
+                .date("2030-01-08").start("11:00").end("11:30").build();
+
+        assertThrows(RuntimeException.class, () -> service.requestReschedule("B1", request));
+
+        verify(bookingRepository).delete(argThat(b -> "B2".equals(b.getId())));
+        verify(slotReservationService).release("T1", "2030-01-08", "11:00", "11:30", "LOCK-2");
+        verify(slotReservationService, never()).release(any(Booking.class));
+        verify(notificationService, never()).createNotification(any(), any(), any(), any());
+    }
+
+    @Test
+    void requestReschedule_freesTheOldSlotOnlyAfterBothBookingsAreWritten() {
+        Booking current = booking(BookingStatus.CONFIRMED);
+        when(bookingRepository.findById("B1")).thenReturn(Optional.of(current));
+        when(slotReservationService.reserve(any(), any(), any(), any())).thenReturn("LOCK-2");
+        when(bookingMapper.toEntity(any(BookingRequest.class))).thenAnswer(inv -> Booking.builder().id("B2").build());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+        BookingRequest request = BookingRequest.builder().tutorId("T1").studentId("S1")
+                .date("2030-01-08").start("11:00").end("11:30").build();
+
+        service.requestReschedule("B1", request);
+
+        var order = inOrder(bookingRepository, slotReservationService);
+        order.verify(bookingRepository, times(2)).save(any(Booking.class));
+        order.verify(slotReservationService).release(current);
+        assertEquals(BookingStatus.RESCHEDULE_REQUESTED, current.getStatus());
+    }
+
+    private static Booking booking(BookingStatus status) {
+        return Booking.builder().id("B1").tutorId("T1").studentId("S1").date("2030-01-07")
+                .start("10:00").end("10:30").lessonType("Online").status(status).amount(new BigDecimal("30")).build();
+    }
+
+    private void stubFacet(int volume) {
+        List<Document> sessions = IntStream.range(0, Math.min(5, volume))
+                .mapToObj(i -> new Document("_id", "B" + i))
+                .toList();
+        List<Document> total = volume == 0 ? List.of() : List.of(new Document("total", volume));
+        Document facet = new Document("sessions", sessions).append("total", total);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("bookings"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(facet), new Document()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.csy.springbootauthbe.booking.service;
+
+import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.booking.repository.BookingTimeCallback;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingTimeMigrationTest {
+
+    @Mock MongoTemplate mongoTemplate;
+    @Mock BulkOperations bulk;
+
+    @Test
+    void epochMinute_ordersLikeDateAndTimeStrings() {
+        long morning = BookingTimeCallback.epochMinute("2025-03-01", "09:30");
+        long evening = BookingTimeCallback.epochMinute("2025-03-01", "18:00");
+        long nextDay = BookingTimeCallback.epochMinute("2025-03-02", "08:00");
+
+        assertTrue(morning < evening && evening < nextDay);
+        assertEquals(BookingTimeCallback.startOfDayMinute(LocalDate.of(2025, 3, 1)) + 570, morning);
+    }
+
+    @Test
+    void callback_fillsTypedTimesOnSave() {
+        Booking booking = Booking.builder().date("2025-03-01").start("10:00").end("11:00").build();
+
+        new BookingTimeCallback().onBeforeConvert(booking, "bookings");
+
+        assertEquals(60, booking.getEndMinute() - booking.getStartMinute());
+    }
+
+    @Test
+    void run_convertsChunksUntilNoneLeft_andFlagsBadDocuments() throws Exception {
+        Document good = new Document("_id", "B1").append("date", "2025-03-01").append("start", "10:00").append("end", "11:00");
+        Document bad = new Document("_id", "B2").append("date", "someday").append("start", "10:00").append("end", "11:00");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("bookings")))
+                .thenReturn(List.of(good, bad))
+                .thenReturn(List.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "bookings")).thenReturn(bulk);
+
+        BookingTimeMigration migration = new BookingTimeMigration(mongoTemplate, true, true, 500, 0, false);
+        assertFalse(migration.isComplete());
+
+        assertEquals(1, migration.run());
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).updateOne(any(Query.class), updates.capture());
+        Document converted = (Document) updates.getAllValues().get(0).getUpdateObject().get("$set");
+        assertEquals(BookingTimeCallback.epochMinute("2025-03-01", "10:00"), converted.get("startMinute"));
+        Document flagged = (Document) updates.getAllValues().get(1).getUpdateObject().get("$set");
+        assertEquals(true, flagged.get(BookingTimeMigration.FAILED_FLAG));
+        verify(bulk).execute();
+        assertTrue(migration.isComplete());
+    }
+
+    @Test
+    void run_pagesOnIdAndSkipsDocumentsAlreadyConverted() throws Exception {
+        Document done = new Document("_id", "B1").append("date", "2025-03-01").append("start", "09:00")
+                .append("end", "10:00").append("startMinute", 1L);
+        Document pending = new Document("_id", "B2").append("date", "2025-03-01").append("start", "10:00").append("end", "11:00");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("bookings")))
+                .thenReturn(List.of(done, pending))
+                .thenReturn(List.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "bookings")).thenReturn(bulk);
+
+        assertEquals(1, new BookingTimeMigration(mongoTemplate, true, true, 2, 0, false).run());
+
+        ArgumentCaptor<Query> pages = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(pages.capture(), eq(Document.class), eq("bookings"));
+        Query first = pages.getAllValues().get(0);
+        assertTrue(first.getQueryObject().isEmpty());
+        assertEquals(new Document("_id", 1), first.getSortObject());
+        assertEquals(2, first.getLimit());
+        assertEquals(new Document("_id", new Document("$gt", "B2")), pages.getAllValues().get(1).getQueryObject());
+        verify(bulk, times(1)).updateOne(eq(Query.query(Criteria.where("_id").is("B2"))), any(Update.class));
+    }
+}
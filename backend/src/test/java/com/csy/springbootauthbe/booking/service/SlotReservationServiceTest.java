@@ -0,0 +1,122 @@
+package com.csy.springbootauthbe.booking.service;
+
+import com.csy.springbootauthbe.EmbeddedMongo;
+import com.csy.springbootauthbe.booking.entity.SlotLock;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlotReservationServiceTest {
+
+    // Emulates the booking_slot_locks collection and its unique _id
+    private final Map<String, SlotLock> collection = new ConcurrentHashMap<>();
+    private SlotReservationService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.insert(anyCollection(), eq(SlotLock.class))).thenAnswer(inv -> {
+            Collection<SlotLock> batch = inv.getArgument(0);
+            for (SlotLock lock : batch) { // ordered insert: stop at the first duplicate
+                if (collection.putIfAbsent(lock.getId(), lock) != null) {
+                    throw new DuplicateKeyException("E11000 duplicate key " + lock.getId());
+                }
+            }
+            return batch;
+        });
+        when(mongoTemplate.remove(any(Query.class), eq(SlotLock.class))).thenAnswer(inv -> {
+            Document criteria = ((Query) inv.getArgument(0)).getQueryObject();
+            List<String> ids = (List<String>) ((Document) criteria.get("_id")).get("$in");
+            Object holder = criteria.get("holder");
+            ids.forEach(id -> collection.computeIfPresent(id, (k, v) -> holder.equals(v.getHolder()) ? null : v));
+            return null;
+        });
+        service = new SlotReservationService(mongoTemplate, 15);
+    }
+
+    @Test
+    void slots_areWidenedToGranularity() {
+        assertArrayEquals(new int[]{600, 615, 630, 645}, service.slots("10:00", "11:00"));
+        assertArrayEquals(new int[]{600, 615}, service.slots("10:10", "10:20"));
+        assertThrows(RuntimeException.class, () -> service.slots("11:00", "10:00"));
+    }
+
+    @Test
+    void release_freesOnlyOwnSlots() {
+        String first = service.reserve("T1", "2025-01-01", "10:00", "11:00");
+
+        assertThrows(RuntimeException.class, () -> service.reserve("T1", "2025-01-01", "10:30", "11:30"));
+        assertEquals(4, collection.size(), "loser must not leave partial locks behind");
+
+        service.release("T1", "2025-01-01", "10:00", "11:00", "someone-else");
+        assertEquals(4, collection.size());
+
+        service.release("T1", "2025-01-01", "10:00", "11:00", first);
+        assertTrue(collection.isEmpty());
+        assertNotNull(service.reserve("T1", "2025-01-01", "10:30", "11:30"));
+    }
+
+    @Test
+    void onRealMongo_parallelBookingsForOneSlot_exactlyOneWins() throws Exception {
+        // The real unique _id and ordered insertMany decide the race, not the emulation above
+        MongoTemplate mongoTemplate = EmbeddedMongo.template("slot_reservation");
+        SlotReservationService service = new SlotReservationService(mongoTemplate, 15);
+        int attempts = 400;
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger losers = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                // Mix of identical and partially overlapping requests that all share the 10:30 slot
+                String[] window = switch (i % 3) {
+                    case 0 -> new String[]{"10:00", "11:00"};
+                    case 1 -> new String[]{"10:30", "11:30"};
+                    default -> new String[]{"09:45", "10:45"};
+                };
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        service.reserve("T1", "2025-01-01", window[0], window[1]);
+                        winners.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        losers.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, winners.get());
+        assertEquals(attempts - 1, losers.get());
+        List<SlotLock> remaining = mongoTemplate.findAll(SlotLock.class);
+        assertEquals(4, remaining.size(), "every window covers four 15-minute slots");
+        long holders = remaining.stream().map(SlotLock::getHolder).distinct().count();
+        assertEquals(1, holders, "only the winner's slots may remain");
+    }
+}
@@ -0,0 +1,195 @@
+package com.csy.springbootauthbe.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyAspectTest {
+
+    // Emulates idempotency_keys with its unique (userId, key) index
+    private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenAnswer(inv -> {
+            IdempotencyRecord record = inv.getArgument(0);
+            record.setId("K" + nextId.incrementAndGet());
+            if (records.putIfAbsent(record.getUserId() + "|" + record.getKey(), record) != null) {
+                throw new DuplicateKeyException("E11000 duplicate key");
+            }
+            return record;
+        });
+        when(mongoTemplate.findOne(any(Query.class), eq(IdempotencyRecord.class))).thenAnswer(inv -> {
+            Document filter = ((Query) inv.getArgument(0)).getQueryObject();
+            return records.get(filter.getString("userId") + "|" + filter.getString("key"));
+        });
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class))).thenAnswer(inv -> {
+            Document set = (Document) ((Update) inv.getArgument(1)).getUpdateObject().get("$set");
+            byId(inv.getArgument(0)).forEach(record -> {
+                record.setStatus(set.getString("status"));
+                record.setResponseStatus(set.getInteger("responseStatus"));
+                record.setResponseBody(set.getString("responseBody"));
+            });
+            return null;
+        });
+        when(mongoTemplate.remove(any(Query.class), eq(IdempotencyRecord.class))).thenAnswer(inv -> {
+            byId(inv.getArgument(0)).forEach(record -> records.remove(record.getUserId() + "|" + record.getKey()));
+            return null;
+        });
+        // Claims in these tests are never stale, so nothing can be taken over
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(IdempotencyRecord.class))).thenReturn(null);
+
+        aspect = new IdempotencyAspect(new IdempotencyService(mongoTemplate), new ObjectMapper());
+        // A fresh context rather than getContext(), which may still hold another test's mock
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new TestingAuthenticationToken("student@example.com", null, "STUDENT")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void repeatedKey_replaysTheStoredResponseWithoutRunningAgain() throws Throwable {
+        withKey("topup-1");
+
+        ResponseEntity<?> first = (ResponseEntity<?>) aspect.around(call(Map.of("amount", 50)));
+        ResponseEntity<?> retry = (ResponseEntity<?>) aspect.around(call(Map.of("amount", 50)));
+
+        assertEquals(1, executions.get());
+        assertEquals(200, retry.getStatusCode().value());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyAspect.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyAspect.REPLAYED_HEADER));
+        assertEquals(new ObjectMapper().valueToTree(first.getBody()), retry.getBody());
+    }
+
+    @Test
+    void sameKeyWithDifferentArguments_isRejected() throws Throwable {
+        withKey("topup-1");
+        aspect.around(call(Map.of("amount", 50)));
+
+        assertThrows(IdempotencyConflictException.class, () -> aspect.around(call(Map.of("amount", 60))));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failedRequest_releasesTheKeySoARetryRunsIt() throws Throwable {
+        withKey("booking-1");
+        ProceedingJoinPoint failing = call(Map.of("amount", 50));
+        doThrow(new RuntimeException("Insufficient credits")).when(failing).proceed();
+
+        assertThrows(RuntimeException.class, () -> aspect.around(failing));
+        assertTrue(records.isEmpty());
+
+        aspect.around(call(Map.of("amount", 50)));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void withoutHeader_everyCallRuns() throws Throwable {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        aspect.around(call(Map.of("amount", 50)));
+        aspect.around(call(Map.of("amount", 50)));
+
+        assertEquals(2, executions.get());
+        assertTrue(records.isEmpty());
+    }
+
+    @Test
+    void concurrentRetries_runTheRequestOnce() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdempotencyAspect.HEADER, "booking-2");
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request);
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                RequestContextHolder.setRequestAttributes(attributes);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                start.await();
+                try {
+                    aspect.around(call(Map.of("amount", 30)));
+                } catch (IdempotencyConflictException e) {
+                    conflicts.incrementAndGet(); // lost the claim while the first request was still running
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertEquals(1, executions.get());
+        assertEquals(IdempotencyRecord.COMPLETED, records.get("student@example.com|booking-2").getStatus());
+    }
+
+    private void withKey(String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdempotencyAspect.HEADER, key);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private ProceedingJoinPoint call(Map<String, Object> body) throws Throwable {
+        Signature signature = mock(Signature.class);
+        when(signature.toShortString()).thenReturn("WalletController.topUp(..)");
+        ProceedingJoinPoint pjp = mock(ProceedingJoinPoint.class);
+        when(pjp.getSignature()).thenReturn(signature);
+        when(pjp.getArgs()).thenReturn(new Object[]{body});
+        when(pjp.proceed()).thenAnswer(inv -> ResponseEntity.ok(Map.of("run", executions.incrementAndGet())));
+        return pjp;
+    }
+
+    private List<IdempotencyRecord> byId(Query query) {
+        Object id = query.getQueryObject().get("_id");
+        return records.values().stream().filter(record -> record.getId().equals(id)).toList();
+    }
+}
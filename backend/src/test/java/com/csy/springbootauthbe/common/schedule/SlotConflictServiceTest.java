@@ -0,0 +1,101 @@
+package com.csy.springbootauthbe.common.schedule;
+
+import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.booking.entity.BookingStatus;
+import com.csy.springbootauthbe.booking.repository.BookingRepository;
+import com.csy.springbootauthbe.event.dto.EventDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotConflictServiceTest {
+
+    @Mock BookingRepository bookingRepository;
+
+    SlotConflictService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SlotConflictService(bookingRepository, 60_000, 100);
+    }
+
+    @Test
+    void minuteOfDay_parsesClockTimes() {
+        assertEquals(0, SlotConflictService.minuteOfDay("00:00"));
+        assertEquals(9 * 60 + 30, SlotConflictService.minuteOfDay("09:30"));
+        assertEquals(23 * 60 + 59, SlotConflictService.minuteOfDay("23:59:59"));
+        assertEquals(24 * 60, SlotConflictService.minuteOfDay("24:00"));
+        assertThrows(RuntimeException.class, () -> SlotConflictService.minuteOfDay("9am"));
+    }
+
+    @Test
+    void bookingOverlaps_treatsSlotsAsHalfOpen() {
+        when(bookingRepository.findByTutorIdAndDateAndStatusIn("T1", "2025-01-01", SlotConflictService.ACTIVE_BOOKING_STATUSES))
+                .thenReturn(List.of(booking("10:00", "11:00"), booking("13:00", "14:30")));
+
+        assertTrue(service.bookingOverlaps("T1", "2025-01-01", "10:30", "11:30"));
+        assertTrue(service.bookingOverlaps("T1", "2025-01-01", "09:00", "15:00"));
+        assertFalse(service.bookingOverlaps("T1", "2025-01-01", "11:00", "13:00"));
+        assertFalse(service.bookingOverlaps("T1", "2025-01-01", "14:30", "15:00"));
+    }
+
+    @Test
+    void bookingIndex_isReusedUntilInvalidated() {
+        when(bookingRepository.findByTutorIdAndDateAndStatusIn("T1", "2025-01-01", SlotConflictService.ACTIVE_BOOKING_STATUSES))
+                .thenReturn(List.of(booking("10:00", "11:00")));
+
+        service.bookingOverlaps("T1", "2025-01-01", "08:00", "09:00");
+        service.bookingOverlaps("T1", "2025-01-01", "12:00", "13:00");
+        verify(bookingRepository, times(1)).findByTutorIdAndDateAndStatusIn("T1", "2025-01-01", SlotConflictService.ACTIVE_BOOKING_STATUSES);
+
+        service.invalidate("T1", "2025-01-01");
+        service.bookingOverlaps("T1", "2025-01-01", "12:00", "13:00");
+        verify(bookingRepository, times(2)).findByTutorIdAndDateAndStatusIn("T1", "2025-01-01", SlotConflictService.ACTIVE_BOOKING_STATUSES);
+    }
+
+    @Test
+    void eventOverlaps_spansDays() {
+        List<EventDTO> events = List.of(EventDTO.builder().start("2025-01-01T22:00").end("2025-01-02T02:00").build());
+
+        assertTrue(service.eventOverlaps(events, LocalDateTime.parse("2025-01-02T01:00"), LocalDateTime.parse("2025-01-02T03:00")));
+        assertFalse(service.eventOverlaps(events, LocalDateTime.parse("2025-01-02T02:00"), LocalDateTime.parse("2025-01-02T03:00")));
+    }
+
+    @Test
+    void intervalIndex_matchesLinearScan() {
+        Random random = new Random(42);
+        long[][] intervals = new long[500][];
+        IntervalIndex.Builder builder = IntervalIndex.builder();
+        for (int i = 0; i < intervals.length; i++) {
+            long start = random.nextInt(1440);
+            long end = start + 1 + random.nextInt(120);
+            intervals[i] = new long[]{start, end};
+            builder.add(start, end);
+        }
+        IntervalIndex index = builder.build();
+
+        for (int q = 0; q < 2000; q++) {
+            long start = random.nextInt(1500);
+            long end = start + 1 + random.nextInt(60);
+            boolean expected = false;
+            for (long[] iv : intervals) {
+                expected |= iv[0] < end && start < iv[1];
+            }
+            assertEquals(expected, index.overlaps(start, end), "query [" + start + "," + end + ")");
+        }
+    }
+
+    private static Booking booking(String start, String end) {
+        return Booking.builder().tutorId("T1").date("2025-01-01").start(start).end(end).status(BookingStatus.CONFIRMED).build();
+    }
+}
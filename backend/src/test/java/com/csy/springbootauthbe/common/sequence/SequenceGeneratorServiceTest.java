@@ -0,0 +1,148 @@
+package com.csy.springbootauthbe.common.sequence;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SequenceGeneratorServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250;
+    // Simulated findAndModify latency; keeps refills slow enough that threads really race for them.
+    // Throughput of the two modes is measured by SequenceGeneratorBenchmark (jmh profile).
+    private static final long ROUND_TRIP_NANOS = 200_000;
+
+    // Stands in for the single counters document: updates to it are serialized, like in Mongo
+    private final ReentrantLock documentLock = new ReentrantLock();
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private long seq;
+
+    @BeforeEach
+    void reset() {
+        seq = 0;
+        roundTrips.set(0);
+    }
+
+    @Test
+    void singleValueMode_usesOneRoundTripPerValue() {
+        SequenceGeneratorService node = node(new MockEnvironment());
+
+        assertEquals(1, node.getNextSequence("eventId"));
+        assertEquals(2, node.getNextSequence("eventId"));
+        assertEquals(2, roundTrips.get());
+    }
+
+    @Test
+    void hiLoMode_servesWholeBlockFromOneRoundTrip() {
+        SequenceGeneratorService node = node(new MockEnvironment()
+                .withProperty("sequence.block-size.eventId", "10"));
+
+        for (long expected = 1; expected <= 10; expected++) {
+            assertEquals(expected, node.getNextSequence("eventId"));
+        }
+        assertEquals(1, roundTrips.get());
+
+        assertEquals(11, node.getNextSequence("eventId"));
+        assertEquals(2, roundTrips.get());
+    }
+
+    @Test
+    void blockSize_isResolvedPerSequence() {
+        SequenceGeneratorService node = node(new MockEnvironment()
+                .withProperty("sequence.block-size.eventId", "50"));
+
+        assertEquals(50, node.blockSize("eventId"));
+        assertEquals(1, node.blockSize("studentId"));
+    }
+
+    @Test
+    void underContention_hiLoStaysUniqueAcrossNodes_withFarFewerRoundTrips() throws Exception {
+        runContended(new MockEnvironment(), "single");
+        int singleTrips = roundTrips.get();
+
+        reset();
+        runContended(new MockEnvironment()
+                .withProperty("sequence.block-size.eventId", "100"), "hi/lo(100)");
+        int hiLoTrips = roundTrips.get();
+
+        int total = THREADS * IDS_PER_THREAD;
+        assertEquals(total, singleTrips);
+        // Each node may strand at most one partially used block
+        assertTrue(hiLoTrips <= total / 100 + 2, "hi/lo round trips: " + hiLoTrips);
+    }
+
+    /** Two nodes sharing one counter, half the threads on each; asserts every value is unique. */
+    private void runContended(MockEnvironment env, String label) throws Exception {
+        SequenceGeneratorService[] nodes = { node(env), node(env) };
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                SequenceGeneratorService node = nodes[t % nodes.length];
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        assertTrue(seen.add(node.getNextSequence("eventId")), label + " issued a duplicate");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            assertEquals(THREADS * IDS_PER_THREAD, seen.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private SequenceGeneratorService node(MockEnvironment env) {
+        MongoOperations mongo = mock(MongoOperations.class);
+        when(mongo.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Counter.class)))
+                .thenAnswer(inv -> {
+                    Update update = inv.getArgument(1);
+                    long by = ((Number) update.getUpdateObject().get("$inc", Document.class).get("seq")).longValue();
+                    documentLock.lock();
+                    try {
+                        roundTrips.incrementAndGet();
+                        LockSupport.parkNanos(ROUND_TRIP_NANOS);
+                        seq += by;
+                        return new Counter("eventId", seq);
+                    } finally {
+                        documentLock.unlock();
+                    }
+                });
+
+        SequenceGeneratorService service = new SequenceGeneratorService();
+        ReflectionTestUtils.setField(service, "mongoOperations", mongo);
+        ReflectionTestUtils.setField(service, "environment", env);
+        return service;
+    }
+}
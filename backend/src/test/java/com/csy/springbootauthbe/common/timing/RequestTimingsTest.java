@@ -0,0 +1,63 @@
+package com.csy.springbootauthbe.common.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.clear();
+    }
+
+    @Test
+    void recordingOutsideARequest_isIgnored() {
+        RequestTimings.recordDb(5_000_000);
+        RequestTimings.recordS3(5_000_000);
+        RequestTimings.recordAuth(5_000_000);
+
+        assertNull(RequestTimings.current());
+    }
+
+    @Test
+    void serverTimingHeader_summarisesSegments() {
+        RequestTimings timings = RequestTimings.start();
+        RequestTimings.recordAuth(1_500_000);
+        RequestTimings.recordDb(2_000_000);
+        RequestTimings.recordDb(3_000_000);
+
+        String header = timings.serverTimingHeader();
+
+        assertTrue(header.startsWith("auth;dur=1.5, db;dur=5.0;desc=\"2 calls\""), header);
+        assertFalse(header.contains("s3;"), "s3 is omitted when no S3 call was made");
+        assertFalse(header.contains("app;"), "app is omitted until the controller has run");
+        assertTrue(header.contains("total;dur="));
+    }
+
+    @Test
+    void controllerTime_isFixedByTheFirstFinish() throws InterruptedException {
+        RequestTimings timings = RequestTimings.start();
+        timings.handlerStarted();
+        timings.handlerFinished();
+        String first = timings.serverTimingHeader().replaceAll(".*app;dur=([0-9.]+).*", "$1");
+
+        Thread.sleep(20);
+        timings.handlerFinished();
+        String second = timings.serverTimingHeader().replaceAll(".*app;dur=([0-9.]+).*", "$1");
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void logFields_includeCallCounts() {
+        RequestTimings timings = RequestTimings.start();
+        RequestTimings.recordS3(10_000_000);
+
+        String fields = timings.toLogFields();
+
+        assertTrue(fields.contains("s3_ms=10.0 s3_calls=1"), fields);
+        assertTrue(fields.contains("db_calls=0"), fields);
+    }
+}
@@ -0,0 +1,118 @@
+package com.csy.springbootauthbe.common.unitofwork;
+
+import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.notification.entity.Notification;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UnitOfWorkRunnerTest {
+
+    private final List<String> flushed = new ArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private MongoTemplate mongoTemplate;
+    private UnitOfWorkRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        // BigDecimal, LocalDateTime etc. are simple types only once the store conversions are known
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        when(mongoTemplate.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.ORDERED), any(Class.class), anyString())).thenAnswer(inv -> {
+            BulkOperations ops = mock(BulkOperations.class);
+            when(ops.execute()).thenAnswer(exec -> {
+                flushed.add(inv.getArgument(2));
+                FlowRoundTrips.record(); // what the command listener does for each round trip
+                return null;
+            });
+            return ops;
+        });
+
+        runner = new UnitOfWorkRunner(mongoTemplate, "bulk");
+        ReflectionTestUtils.setField(runner, "meterRegistry", registry);
+    }
+
+    @Test
+    void writesAreFlushedWithOneBulkWritePerCollection() {
+        Booking first = Booking.builder().id("65f000000000000000000001").build();
+        Booking second = Booking.builder().id("65f000000000000000000002").build();
+
+        int bulkWrites = runner.run("approve_reschedule", uow -> {
+            uow.save(first);
+            uow.insert(new Notification());
+            uow.save(second);
+            uow.insert(new Notification());
+            return uow.bulkWrites();
+        });
+
+        assertEquals(0, bulkWrites, "nothing is written while the flow runs");
+        assertEquals(List.of("bookings", "notifications"), flushed);
+        DistributionSummary roundTrips = registry.get(UnitOfWorkRunner.ROUND_TRIPS_METRIC)
+                .tag("flow", "approve_reschedule").tag("mode", "bulk").summary();
+        assertEquals(1, roundTrips.count());
+        assertEquals(2.0, roundTrips.totalAmount());
+    }
+
+    @Test
+    void insertedEntitiesGetTheirIdBeforeTheFlush() {
+        Notification notification = runner.run("accept_booking", uow -> uow.insert(new Notification()));
+
+        assertNotNull(notification.getId());
+        assertEquals(24, notification.getId().length());
+    }
+
+    @Test
+    void afterCommitCallbacksRunOnlyOnceTheWritesSucceeded() {
+        List<String> events = new ArrayList<>();
+
+        runner.run("cancel_booking", uow -> {
+            uow.save(Booking.builder().id("65f000000000000000000001").build());
+            uow.afterCommit(() -> events.add("released after " + flushed));
+            return null;
+        });
+        assertEquals(List.of("released after [bookings]"), events);
+
+        events.clear();
+        assertThrows(RuntimeException.class, () -> runner.run("cancel_booking", uow -> {
+            uow.afterCommit(() -> events.add("released"));
+            throw new RuntimeException("Booking is already cancelled");
+        }));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void roundTripsAreCountedWithoutATimedRequest_andNestedFlowsAddUp() {
+        runner.run("accept_booking", outer -> {
+            outer.insert(new Notification());
+            return runner.run("refund", inner -> inner.insert(new Notification()));
+        });
+
+        FlowRoundTrips.record(); // outside any flow: ignored
+        assertEquals(1.0, registry.get(UnitOfWorkRunner.ROUND_TRIPS_METRIC).tag("flow", "refund").summary().totalAmount());
+        assertEquals(2.0, registry.get(UnitOfWorkRunner.ROUND_TRIPS_METRIC).tag("flow", "accept_booking").summary().totalAmount());
+    }
+
+    @Test
+    void bulkModeUnitsOfWorkAreNotTransactional() {
+        assertFalse(runner.run("accept_booking", MongoUnitOfWork::isTransactional));
+    }
+}
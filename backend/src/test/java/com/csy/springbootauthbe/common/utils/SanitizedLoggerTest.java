@@ -0,0 +1,132 @@
+package com.csy.springbootauthbe.common.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SanitizedLoggerTest {
+
+    private Logger backing;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void attach() {
+        backing = (Logger) LoggerFactory.getLogger(SanitizedLoggerTest.class);
+        backing.setLevel(Level.INFO);
+        appender = new ListAppender<>();
+        appender.start();
+        backing.addAppender(appender);
+    }
+
+    @AfterEach
+    void detach() {
+        backing.detachAppender(appender);
+        backing.setLevel(null);
+    }
+
+    @Test
+    void info_masksSecretsAndControlCharacters() {
+        SanitizedLogger logger = SanitizedLogger.getLogger(SanitizedLoggerTest.class);
+
+        logger.info("login {} {}", "password=hunter2", "line1\r\nline2");
+
+        String line = appender.list.get(0).getFormattedMessage();
+        assertEquals("login password=*** line1 line2", line);
+    }
+
+    @Test
+    void infoSummary_writesOneLineAndDescribesOnlyASample() {
+        SanitizedLogger logger = SanitizedLogger.getLogger(SanitizedLoggerTest.class);
+        List<Integer> items = IntStream.range(0, 500).boxed().toList();
+        AtomicInteger described = new AtomicInteger();
+
+        logger.infoSummary("Found bookings", items, i -> {
+            described.incrementAndGet();
+            return "id=" + i;
+        });
+
+        assertEquals(1, appender.list.size());
+        assertEquals("Found bookings count=500 sample=[id=0, id=1, id=2, ...]", appender.list.get(0).getFormattedMessage());
+        assertEquals(3, described.get());
+    }
+
+    @Test
+    void infoSummary_itemLinesOnlyAtDebug() {
+        backing.setLevel(Level.DEBUG);
+        SanitizedLogger logger = SanitizedLogger.getLogger(SanitizedLoggerTest.class);
+
+        logger.infoSummary("Found bookings", List.of("a", "b"), s -> s);
+
+        assertEquals(3, appender.list.size());
+        assertEquals("Found bookings item=b", appender.list.get(2).getFormattedMessage());
+    }
+
+    @Test
+    void infoRateLimited_dropsExcessPerCallSite_andReportsSuppressedCount() throws Exception {
+        SanitizedLogger logger = SanitizedLogger.getLogger(SanitizedLoggerTest.class, 2, 50);
+
+        for (int i = 0; i < 10; i++) {
+            logger.infoRateLimited("poll {}", i);
+        }
+        logger.infoRateLimited("other call site");
+        assertEquals(3, appender.list.size());
+
+        Thread.sleep(60);
+        logger.infoRateLimited("poll {}", 99);
+
+        assertEquals(4, appender.list.size());
+        assertEquals("poll 99 (suppressed 8 similar)", appender.list.get(3).getFormattedMessage());
+    }
+
+    @Test
+    void infoRateLimited_disabledLevel_doesNothing() {
+        backing.setLevel(Level.WARN);
+        SanitizedLogger logger = SanitizedLogger.getLogger(SanitizedLoggerTest.class, 1, 1000);
+
+        logger.infoRateLimited("poll {}", 1);
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void sanitize_returnsSameInstance_whenNothingToMask() {
+        String clean = "Fetching bookings for tutorId=T1 between 2025-01-01 and 2025-01-31";
+
+        assertSame(clean, SanitizedLogger.sanitize(clean));
+        assertEquals("token=***, next", SanitizedLogger.sanitize("Token: abc, next"));
+        assertEquals("authorization=*** ok", SanitizedLogger.sanitize("Authorization=Bearer\tok"));
+    }
+
+    @Test
+    void arguments_areNotRendered_whenLevelDisabled() {
+        backing.setLevel(Level.WARN);
+        SanitizedLogger logger = SanitizedLogger.getLogger(SanitizedLoggerTest.class);
+        AtomicInteger rendered = new AtomicInteger();
+        Object arg = new Object() {
+            @Override
+            public String toString() {
+                rendered.incrementAndGet();
+                return "x";
+            }
+        };
+
+        logger.info("value {}", arg);
+        logger.debug("value {}", arg);
+        assertEquals(0, rendered.get());
+
+        logger.warn("value {}", arg);
+        assertEquals("value x", appender.list.get(0).getFormattedMessage());
+        assertEquals(1, rendered.get());
+    }
+}
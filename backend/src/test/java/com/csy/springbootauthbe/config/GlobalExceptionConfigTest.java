@@ -0,0 +1,44 @@
+package com.csy.springbootauthbe.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GlobalExceptionConfigTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+            .setControllerAdvice(new GlobalExceptionConfig())
+            .build();
+
+    @Test
+    void malformedInput_isABadRequest() throws Exception {
+        mockMvc.perform(get("/bad-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor: garbage"));
+    }
+
+    @Test
+    void otherRuntimeFailures_stayForbidden() throws Exception {
+        mockMvc.perform(get("/suspended")).andExpect(status().isForbidden());
+    }
+
+    @RestController
+    static class FailingController {
+        @GetMapping("/bad-cursor")
+        ResponseEntity<?> badCursor() {
+            throw new IllegalArgumentException("Invalid cursor: garbage");
+        }
+
+        @GetMapping("/suspended")
+        ResponseEntity<?> suspended() {
+            throw new RuntimeException("Account is suspended");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.csy.springbootauthbe.config;
+
+import com.csy.springbootauthbe.user.entity.AccountStatus;
+import com.csy.springbootauthbe.user.entity.Role;
+import com.csy.springbootauthbe.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JWTServiceTest {
+
+    // 256-bit base64 key, enough for HS256
+    private static final String SECRET = "ZmFrZS1zZWNyZXQta2V5LWZvci10ZXN0cy0xMjM0NTY3ODkwYWJjZGVm";
+
+    private JWTService jwtService;
+    private SimpleMeterRegistry meterRegistry;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JWTService();
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheTtlMs", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxSize", 100);
+        jwtService.init();
+
+        user = User.builder()
+                .id("U1")
+                .email("user@x.com")
+                .role(Role.STUDENT)
+                .status(AccountStatus.ACTIVE)
+                .build();
+    }
+
+    @Test
+    void generatedToken_isValid_andSubjectMatches() {
+        String token = jwtService.generateToken(user);
+
+        assertEquals("user@x.com", jwtService.extractUsername(token));
+        assertTrue(jwtService.isTokenValid(token, user));
+    }
+
+    @Test
+    void repeatedLookups_verifyTokenOnlyOnce() {
+        String token = jwtService.generateToken(user);
+
+        jwtService.extractUsername(token);
+        jwtService.isTokenValid(token, user);
+        jwtService.extractUsername(token);
+
+        assertEquals(1, jwtService.getClaimsCacheMisses());
+        assertTrue(jwtService.getClaimsCacheHits() >= 3);
+    }
+
+    @Test
+    void verificationAndCacheLookups_areMetered() {
+        String token = jwtService.generateToken(user);
+        jwtService.extractUsername(token);
+        jwtService.extractUsername(token);
+        assertThrows(Exception.class, () -> jwtService.extractUsername(token + "x"));
+
+        assertEquals(1, meterRegistry.get("jwt.verification").tag("outcome", "valid").timer().count());
+        assertEquals(1, meterRegistry.get("jwt.verification").tag("outcome", "rejected").timer().count());
+        assertEquals(1.0, meterRegistry.get("jwt.claims.cache").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("jwt.claims.cache").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void tamperedToken_isRejected() {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThrows(Exception.class, () -> jwtService.extractUsername(tampered));
+    }
+}
@@ -0,0 +1,28 @@
+package com.csy.springbootauthbe.config;
+
+import com.csy.springbootauthbe.common.wrapper.PrincipalCache;
+import com.csy.springbootauthbe.common.wrapper.UserDetailsWrapper;
+import com.csy.springbootauthbe.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsConfigTest {
+
+    @Test
+    void principalCacheHitsAndMissesAreExported() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PrincipalCache cache = new PrincipalCache(60_000, 100);
+        new MetricsConfig().principalCacheMetrics(cache).bindTo(registry);
+
+        cache.get("student@example.com");
+        cache.put("student@example.com", new UserDetailsWrapper(new User()));
+        cache.get("student@example.com");
+        cache.get("student@example.com");
+
+        assertEquals(2.0, registry.get("auth.principal.cache").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("auth.principal.cache").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("auth.principal.cache.size").gauge().value());
+    }
+}
@@ -0,0 +1,104 @@
+package com.csy.springbootauthbe.config;
+
+import com.csy.springbootauthbe.EmbeddedMongo;
+import com.csy.springbootauthbe.booking.entity.Booking;
+import com.csy.springbootauthbe.wallet.entity.Wallet;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MongoIndexVerifierTest {
+
+    @Test
+    void usesCollectionScan_findsNestedStages() {
+        Document ixscan = new Document("stage", "FETCH")
+                .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "tutor_date_start_idx"));
+        Document collscan = new Document("stage", "SORT")
+                .append("inputStage", new Document("stage", "COLLSCAN"));
+        Document orPlan = new Document("stage", "OR")
+                .append("inputStages", List.of(ixscan, collscan));
+
+        assertFalse(MongoIndexVerifier.usesCollectionScan(ixscan));
+        assertTrue(MongoIndexVerifier.usesCollectionScan(collscan));
+        assertTrue(MongoIndexVerifier.usesCollectionScan(orPlan));
+        assertTrue(MongoIndexVerifier.usesCollectionScan(new Document("queryPlan", collscan)));
+    }
+
+    @Test
+    void verifyDeclaredIndexes_createsOnlyMissingBookingIndexes() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(Booking.class));
+        mappingContext.initialize();
+
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                index("_id_", "_id"),
+                index("tutor_date_start_idx", "tutorId", "date", "start")));
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.indexOps(Booking.class)).thenReturn(indexOps);
+
+        MongoIndexVerifier verifier = new MongoIndexVerifier(mongoTemplate, mappingContext);
+        ReflectionTestUtils.setField(verifier, "createMissing", true);
+        verifier.verifyDeclaredIndexes();
+
+        verify(indexOps, times(3)).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void verifyDeclaredIndexes_doesNotTakeAPlainIndexForAMissingUniqueOne() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(Wallet.class));
+        mappingContext.initialize();
+
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(index("_id_", "_id"), index("studentId", "studentId")));
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.indexOps(Wallet.class)).thenReturn(indexOps);
+
+        MongoIndexVerifier verifier = new MongoIndexVerifier(mongoTemplate, mappingContext);
+        ReflectionTestUtils.setField(verifier, "createMissing", true);
+        verifier.verifyDeclaredIndexes();
+
+        verify(indexOps).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void onRealMongo_everyQueryShapeIsServedByAnIndex() {
+        MongoTemplate mongoTemplate = EmbeddedMongo.template("index_verifier");
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        MongoIndexVerifier verifier = new MongoIndexVerifier(mongoTemplate, mappingContext);
+        ReflectionTestUtils.setField(verifier, "createMissing", true);
+
+        verifier.verify();
+
+        assertEquals(List.of(), verifier.verifyQueryPlans());
+        for (MongoIndexVerifier.QueryShape shape : MongoIndexVerifier.QUERY_SHAPES) {
+            assertTrue(mongoTemplate.collectionExists(shape.collection()), shape.name() + " has its indexes created");
+        }
+    }
+
+    private static IndexInfo index(String name, String... keys) {
+        List<IndexField> fields = Arrays.stream(keys)
+                .map(k -> IndexField.create(k, Sort.Direction.ASC))
+                .toList();
+        return new IndexInfo(fields, name, false, false, null);
+    }
+}
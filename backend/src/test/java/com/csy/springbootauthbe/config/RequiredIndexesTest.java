@@ -0,0 +1,91 @@
+package com.csy.springbootauthbe.config;
+
+import com.csy.springbootauthbe.EmbeddedMongo;
+import com.csy.springbootauthbe.common.idempotency.IdempotencyConflictException;
+import com.csy.springbootauthbe.common.idempotency.IdempotencyRecord;
+import com.csy.springbootauthbe.common.idempotency.IdempotencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RequiredIndexesTest {
+
+    @Test
+    void concurrentClaimsOfOneKey_haveExactlyOneOwner() throws Exception {
+        MongoTemplate mongoTemplate = EmbeddedMongo.template("required_indexes");
+        new RequiredIndexes(mongoTemplate, true).afterSingletonsInstantiated();
+        IdempotencyService idempotency = new IdempotencyService(mongoTemplate);
+
+        int threads = 16;
+        AtomicInteger owners = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    IdempotencyRecord claim = idempotency.claim("U1", "topup-1", "fingerprint");
+                    if (IdempotencyRecord.IN_PROGRESS.equals(claim.getStatus())) owners.incrementAndGet();
+                } catch (IdempotencyConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertEquals(1, owners.get());
+        assertEquals(threads - 1, conflicts.get());
+        assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("key").is("topup-1")), IdempotencyRecord.class));
+    }
+
+    @Test
+    void anIndexThatCannotBeCreated_failsStartup() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(indexOps.ensureIndex(any(IndexDefinition.class))).thenThrow(new RuntimeException("E11000 duplicate key"));
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(indexOps);
+
+        assertThrows(IllegalStateException.class, () -> new RequiredIndexes(mongoTemplate, true).afterSingletonsInstantiated());
+
+        new RequiredIndexes(mongoTemplate, false).afterSingletonsInstantiated();
+        verify(indexOps, times(1)).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void aPlainIndexInTheWayOfAUniqueOne_failsStartup() {
+        MongoTemplate mongoTemplate = EmbeddedMongo.template("required_indexes_conflict");
+        // Same name and keys as user_key_idx, but without the unique option
+        mongoTemplate.indexOps(IdempotencyRecord.class).ensureIndex(
+                new Index().on("userId", Sort.Direction.ASC).on("key", Sort.Direction.ASC).named("user_key_idx"));
+
+        RequiredIndexes requiredIndexes = new RequiredIndexes(mongoTemplate, true);
+
+        assertThrows(IllegalStateException.class, requiredIndexes::afterSingletonsInstantiated);
+    }
+}
@@ -1,5 +1,7 @@
 package com.csy.springbootauthbe.tutor.service;
 
+import com.csy.springbootauthbe.admin.service.DashboardCounterService;
+import com.csy.springbootauthbe.common.wrapper.PrincipalCache;
 import com.csy.springbootauthbe.tutor.dto.TutorDTO;
 import com.csy.springbootauthbe.tutor.entity.Tutor;
 import com.csy.springbootauthbe.tutor.mapper.TutorMapper;
@@ -27,6 +29,8 @@ class TutorServiceImplTest {
     @Mock UserRepository userRepository;
     @Mock TutorRepository tutorRepository;
     @Mock TutorMapper tutorMapper;
+    @Mock PrincipalCache principalCache;
+    @Mock DashboardCounterService dashboardCounterService;
 
     @InjectMocks TutorServiceImpl tutorService;
 
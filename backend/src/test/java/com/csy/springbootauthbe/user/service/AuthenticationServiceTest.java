@@ -1,5 +1,6 @@
 package com.csy.springbootauthbe.user.service;
 
+import com.csy.springbootauthbe.admin.service.DashboardCounterService;
 import com.csy.springbootauthbe.config.JWTService;
 import com.csy.springbootauthbe.student.dto.StudentDTO;
 import com.csy.springbootauthbe.student.service.StudentService;
@@ -35,6 +36,7 @@ class AuthenticationServiceTest {
     @Mock AuthenticationManager authenticationManager;
     @Mock StudentService studentService;
     @Mock TutorService tutorService;
+    @Mock DashboardCounterService dashboardCounterService;
 
     @InjectMocks AuthenticationService auth;
 
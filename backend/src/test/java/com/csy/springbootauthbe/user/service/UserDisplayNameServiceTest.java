@@ -0,0 +1,64 @@
+package com.csy.springbootauthbe.user.service;
+
+import com.csy.springbootauthbe.user.repository.UserRepository;
+import com.csy.springbootauthbe.user.utils.UserSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDisplayNameServiceTest {
+
+    @Mock UserRepository userRepository;
+
+    UserDisplayNameService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserDisplayNameService(userRepository, 60_000, 100);
+    }
+
+    @Test
+    void displayNames_fetchesOnlyCacheMisses() {
+        when(userRepository.findSummariesByIdIn(anyCollection()))
+                .thenReturn(List.of(new UserSummary("U1", "Ann", "Lee")))
+                .thenReturn(List.of(new UserSummary("U2", "Bob", "Tan")));
+
+        assertEquals(Map.of("U1", "Ann Lee"), service.displayNames(List.of("U1")));
+        assertEquals(Map.of("U1", "Ann Lee", "U2", "Bob Tan"), service.displayNames(List.of("U1", "U2", "U2")));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository, times(2)).findSummariesByIdIn(ids.capture());
+        assertEquals(List.of("U2"), List.copyOf(ids.getAllValues().get(1)));
+    }
+
+    @Test
+    void evict_forcesReload() {
+        when(userRepository.findSummariesByIdIn(anyCollection()))
+                .thenReturn(List.of(new UserSummary("U1", "Ann", "Lee")));
+
+        service.displayNames(List.of("U1"));
+        service.evict("U1");
+        service.displayNames(List.of("U1"));
+
+        verify(userRepository, times(2)).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    void displayNames_noIds_skipsQuery() {
+        assertTrue(service.displayNames(List.of()).isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -1,5 +1,7 @@
 package com.csy.springbootauthbe.user.service;
 
+import com.csy.springbootauthbe.admin.service.DashboardCounterService;
+import com.csy.springbootauthbe.common.wrapper.PrincipalCache;
 import com.csy.springbootauthbe.user.entity.AccountStatus;
 import com.csy.springbootauthbe.user.entity.Role;
 import com.csy.springbootauthbe.user.entity.User;
@@ -33,6 +35,15 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private UserDisplayNameService userDisplayNameService;
+
+    @Mock
+    private DashboardCounterService dashboardCounterService;
+
     @Mock
     private Authentication authentication;
 
@@ -133,6 +144,8 @@ class UserServiceTest {
         assertEquals("encodedPass", adminUser.getPassword());
         assertEquals("Admin User", response.getName());
         verify(userRepository).save(adminUser);
+        verify(principalCache).evict("admin@example.com");
+        verify(principalCache).evict("new@example.com");
     }
 
     /* Success Case for deleteUser */
@@ -143,6 +156,8 @@ class UserServiceTest {
         userService.deleteUser("1");
 
         verify(userRepository).delete(adminUser);
+        verify(dashboardCounterService).recordDeleted(adminUser.getRole(), adminUser.getStatus());
+        verify(userDisplayNameService).evict(adminUser.getId());
     }
 
     /** Helper method to mock SecurityContext with a given email */
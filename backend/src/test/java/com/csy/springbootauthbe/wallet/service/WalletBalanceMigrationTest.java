@@ -0,0 +1,84 @@
+package com.csy.springbootauthbe.wallet.service;
+
+import com.csy.springbootauthbe.EmbeddedMongo;
+import com.csy.springbootauthbe.wallet.entity.Wallet;
+import com.csy.springbootauthbe.wallet.entity.WalletSnapshot;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WalletBalanceMigrationTest {
+
+    private MongoTemplate mongoTemplate;
+    private WalletBalanceMigration migration;
+
+    private void seedLegacyWallets() {
+        mongoTemplate = EmbeddedMongo.template("wallet_migration");
+        // As written by the old default BigDecimal mapping, next to an already converted wallet
+        mongoTemplate.getCollection("wallets").insertMany(List.of(
+                new Document("studentId", "S1").append("balance", "12.50").append("currency", "SGD"),
+                new Document("studentId", "S2").append("balance", new Decimal128(new BigDecimal("5.00"))).append("currency", "SGD")));
+        migration = new WalletBalanceMigration(mongoTemplate, true);
+    }
+
+    @Test
+    void run_convertsStringBalancesToDecimal128Once() {
+        seedLegacyWallets();
+
+        assertEquals(1, migration.run());
+        assertEquals(0, migration.run(), "idempotent");
+
+        Object converted = rawWallet("S1").get("balance");
+        assertInstanceOf(Decimal128.class, converted);
+        assertEquals(0, new BigDecimal("12.50").compareTo(((Decimal128) converted).bigDecimalValue()));
+        assertEquals(new Decimal128(new BigDecimal("5.00")), rawWallet("S2").get("balance"));
+    }
+
+    @Test
+    void openLedgers_snapshotsCurrentBalancesAtSeqZero() {
+        seedLegacyWallets();
+
+        migration.run();
+
+        assertEquals(2, migration.openLedgers());
+        assertEquals(0, migration.openLedgers(), "wallets with a seq are left alone");
+
+        assertEquals(0L, rawWallet("S1").get("seq"));
+        WalletSnapshot opening = mongoTemplate.findOne(
+                Query.query(Criteria.where("studentId").is("S1").and("seq").is(0L)), WalletSnapshot.class);
+        assertNotNull(opening);
+        assertEquals(0, new BigDecimal("12.50").compareTo(opening.getBalance()));
+        assertEquals(2, mongoTemplate.count(new Query(), WalletSnapshot.class));
+    }
+
+    @Test
+    void aFailedMigration_failsStartup() {
+        MongoTemplate failing = mock(MongoTemplate.class);
+        when(failing.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Wallet.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(failing.stream(any(Query.class), eq(Wallet.class))).thenThrow(new DataAccessResourceFailureException("timed out"));
+
+        // Credits and debits would otherwise give these wallets a seq without their opening snapshot
+        assertThrows(IllegalStateException.class, () -> new WalletBalanceMigration(failing, true).afterSingletonsInstantiated());
+        new WalletBalanceMigration(failing, false).afterSingletonsInstantiated();
+    }
+
+    private Document rawWallet(String studentId) {
+        return mongoTemplate.getCollection("wallets").find(new Document("studentId", studentId)).first();
+    }
+}
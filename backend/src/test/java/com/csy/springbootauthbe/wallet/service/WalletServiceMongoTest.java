@@ -0,0 +1,137 @@
+package com.csy.springbootauthbe.wallet.service;
+
+import com.csy.springbootauthbe.EmbeddedMongo;
+import com.csy.springbootauthbe.wallet.entity.Wallet;
+import com.csy.springbootauthbe.wallet.entity.WalletSnapshot;
+import com.csy.springbootauthbe.wallet.entity.WalletTransaction;
+import com.csy.springbootauthbe.wallet.repository.WalletRepository;
+import com.csy.springbootauthbe.wallet.repository.WalletSnapshotRepository;
+import com.csy.springbootauthbe.wallet.repository.WalletTransactionRepository;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The balance guarantees that only the server can give: Decimal128 {@code $inc} with the
+ * {@code $gte} guard in one findAndModify, and the upsert race on the unique studentId index.
+ */
+class WalletServiceMongoTest {
+
+    private MongoTemplate mongoTemplate;
+    private WalletService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongo.template("wallet_service");
+        EmbeddedMongo.createIndexes(mongoTemplate, Wallet.class, WalletTransaction.class, WalletSnapshot.class);
+        MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+        service = new WalletService(
+                repositories.getRepository(WalletRepository.class),
+                repositories.getRepository(WalletTransactionRepository.class),
+                repositories.getRepository(WalletSnapshotRepository.class),
+                mongoTemplate);
+        ReflectionTestUtils.setField(service, "snapshotInterval", 10L);
+    }
+
+    @Test
+    void parallelTopUpsHoldsAndRefunds_keepBalanceInvariants() throws Exception {
+        BigDecimal initial = new BigDecimal("200.00");
+        BigDecimal topUp = new BigDecimal("3.00");
+        BigDecimal hold = new BigDecimal("7.50");
+        BigDecimal refund = new BigDecimal("1.25");
+        service.addCredits("S1", initial, "TOPUP-0");
+
+        int threads = 16;
+        int opsPerThread = 100;
+        AtomicInteger holdsOk = new AtomicInteger();
+        AtomicInteger holdsRejected = new AtomicInteger();
+        runConcurrently(threads, thread -> {
+            for (int i = 0; i < opsPerThread; i++) {
+                switch ((thread + i) % 4) {
+                    case 0 -> service.addCredits("S1", topUp, "TOPUP");
+                    case 3 -> service.refundStudent("S1", refund, "B");
+                    default -> {
+                        try {
+                            service.holdCredits("S1", hold, "B");
+                            holdsOk.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            holdsRejected.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        });
+
+        int totalOps = threads * opsPerThread;
+        BigDecimal expected = initial
+                .add(topUp.multiply(BigDecimal.valueOf(totalOps / 4)))
+                .add(refund.multiply(BigDecimal.valueOf(totalOps / 4)))
+                .subtract(hold.multiply(BigDecimal.valueOf(holdsOk.get())));
+
+        Document head = mongoTemplate.getCollection("wallets").find(new Document("studentId", "S1")).first();
+        assertNotNull(head);
+        assertInstanceOf(Decimal128.class, head.get("balance"), "stored as Decimal128, not a string");
+        BigDecimal stored = ((Decimal128) head.get("balance")).bigDecimalValue();
+        assertTrue(holdsRejected.get() > 0, "the scenario should drain the wallet at some point");
+        assertEquals(0, expected.compareTo(stored), "no lost updates");
+        assertTrue(stored.signum() >= 0, "the $gte guard never lets the balance go negative");
+
+        List<WalletTransaction> entries = mongoTemplate.find(
+                Query.query(Criteria.where("studentId").is("S1")), WalletTransaction.class);
+        assertEquals(holdsOk.get(), entries.stream().filter(t -> "BOOKING_HOLD".equals(t.getType())).count(),
+                "one ledger entry per successful hold");
+        long seq = ((Number) head.get("seq")).longValue();
+        assertEquals(entries.size(), seq, "one entry per seq");
+        assertEquals(seq, entries.stream().map(WalletTransaction::getSeq).distinct().count(), "no duplicate seq");
+        assertEquals(0, expected.compareTo(service.getWallet("S1").getBalance()), "ledger read matches the head");
+    }
+
+    @Test
+    void concurrentFirstTopUps_createExactlyOneWallet() throws Exception {
+        int threads = 16;
+        runConcurrently(threads, thread -> service.addCredits("NEW", BigDecimal.ONE, "TOPUP-" + thread));
+
+        List<Wallet> wallets = mongoTemplate.find(Query.query(Criteria.where("studentId").is("NEW")), Wallet.class);
+        assertEquals(1, wallets.size(), "losers of the upsert race update the winner's wallet");
+        assertEquals(0, BigDecimal.valueOf(threads).compareTo(wallets.get(0).getBalance()));
+        assertEquals(threads, wallets.get(0).getSeq());
+    }
+
+    private static void runConcurrently(int threads, ThreadBody body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    body.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private interface ThreadBody {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,321 @@
+package com.csy.springbootauthbe.wallet.service;
+
+import com.csy.springbootauthbe.common.pagination.CursorPage;
+import com.csy.springbootauthbe.common.unitofwork.MongoUnitOfWork;
+import com.csy.springbootauthbe.wallet.dto.WalletMonthlySummary;
+import com.csy.springbootauthbe.wallet.dto.WalletTransactionQuery;
+import com.csy.springbootauthbe.wallet.entity.Wallet;
+import com.csy.springbootauthbe.wallet.entity.WalletSnapshot;
+import com.csy.springbootauthbe.wallet.entity.WalletTransaction;
+import com.csy.springbootauthbe.wallet.repository.WalletRepository;
+import com.csy.springbootauthbe.wallet.repository.WalletSnapshotRepository;
+import com.csy.springbootauthbe.wallet.repository.WalletTransactionRepository;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.MatchOperation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WalletServiceTest {
+
+    // Emulates the wallets collection: findAndModify applies its guard and $inc per document.
+    // Concurrency against the real server is covered by WalletServiceMongoTest.
+    private final Map<String, Head> heads = new ConcurrentHashMap<>();
+    private final List<WalletTransaction> transactions = new CopyOnWriteArrayList<>();
+    private final List<WalletSnapshot> snapshots = new CopyOnWriteArrayList<>();
+    private WalletTransactionRepository txnRepo;
+    private MongoTemplate mongoTemplate;
+    private WalletService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Wallet.class)))
+                .thenAnswer(inv -> findAndModify(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2)));
+
+        WalletRepository walletRepo = mock(WalletRepository.class);
+        when(walletRepo.findByStudentId(any())).thenAnswer(inv -> Optional.ofNullable(heads.get((String) inv.getArgument(0)))
+                .map(h -> wallet(inv.getArgument(0), h)));
+
+        txnRepo = mock(WalletTransactionRepository.class);
+        when(txnRepo.save(any(WalletTransaction.class))).thenAnswer(inv -> {
+            transactions.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(txnRepo.findByStudentIdAndSeqGreaterThan(any(), any(Long.class))).thenAnswer(inv -> transactions.stream()
+                .filter(t -> t.getStudentId().equals(inv.getArgument(0)) && t.getSeq() != null
+                        && t.getSeq() > inv.<Long>getArgument(1))
+                .toList());
+        when(txnRepo.findByStudentIdAndSeqLessThanOrderBySeqDesc(any(), any(Long.class), any(Pageable.class)))
+                .thenAnswer(inv -> transactions.stream()
+                        .filter(t -> t.getStudentId().equals(inv.getArgument(0)) && t.getSeq() != null
+                                && t.getSeq() < inv.<Long>getArgument(1))
+                        .sorted(Comparator.comparing(WalletTransaction::getSeq).reversed())
+                        .limit(((Pageable) inv.getArgument(2)).getPageSize())
+                        .toList());
+
+        WalletSnapshotRepository snapshotRepo = mock(WalletSnapshotRepository.class);
+        when(snapshotRepo.insert(any(WalletSnapshot.class))).thenAnswer(inv -> {
+            snapshots.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(snapshotRepo.findFirstByStudentIdOrderBySeqDesc(any())).thenAnswer(inv -> snapshots.stream()
+                .filter(snap -> snap.getStudentId().equals(inv.getArgument(0)))
+                .max(Comparator.comparingLong(WalletSnapshot::getSeq)));
+
+        service = new WalletService(walletRepo, txnRepo, snapshotRepo, mongoTemplate);
+        ReflectionTestUtils.setField(service, "snapshotInterval", 10L);
+    }
+
+    @Test
+    void holdCredits_beyondBalance_isRejectedWithoutChange() {
+        service.addCredits("S1", new BigDecimal("10.00"), "TOPUP-1");
+
+        assertThrows(RuntimeException.class, () -> service.holdCredits("S1", new BigDecimal("10.01"), "B1"));
+
+        assertEquals(0, new BigDecimal("10.00").compareTo(balance("S1")));
+        assertEquals(1, transactions.size(), "no hold transaction for a rejected hold");
+    }
+
+    @Test
+    void getWallet_createsAnEmptyWalletOnFirstUse() {
+        Wallet wallet = service.getWallet("NEW");
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(wallet.getBalance()));
+        assertTrue(heads.containsKey("NEW"));
+        assertEquals(0L, heads.get("NEW").seq(), "opening a wallet is not a ledger entry");
+    }
+
+    @Test
+    void getWallet_readsTheBalanceFromTheLatestSnapshotPlusTail() {
+        for (int i = 0; i < 13; i++) {
+            service.addCredits("S1", new BigDecimal("2.50"), "TOPUP-" + i);
+        }
+        // Entries before the snapshot no longer matter for the read
+        transactions.removeIf(t -> t.getSeq() <= 10);
+
+        assertEquals(1, snapshots.size());
+        assertEquals(10L, snapshots.get(0).getSeq());
+        assertEquals(0, new BigDecimal("25.00").compareTo(snapshots.get(0).getBalance()));
+        assertEquals(0, new BigDecimal("32.50").compareTo(service.getWallet("S1").getBalance()));
+    }
+
+    @Test
+    void releaseToTutor_tracesTheStudentSideOutsideTheLedger() {
+        service.addCredits("S1", new BigDecimal("40.00"), "TOPUP-1");
+        service.holdCredits("S1", new BigDecimal("30.00"), "B1");
+
+        service.releaseToTutor("S1", "T1", new BigDecimal("30.00"), "B1");
+
+        WalletTransaction trace = transactions.stream().filter(t -> "BOOKING_CONFIRMED".equals(t.getType())).findFirst().orElseThrow();
+        assertNull(trace.getSeq());
+        assertEquals(0, new BigDecimal("10.00").compareTo(service.getWallet("S1").getBalance()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(service.getWallet("T1").getBalance()));
+    }
+
+    @Test
+    void refundInABulkFlow_writesTheLedgerEntryNextToTheBalanceChange() {
+        MongoUnitOfWork uow = mock(MongoUnitOfWork.class);
+
+        service.refundStudent("S1", new BigDecimal("30.00"), "B1", uow);
+
+        verify(uow, never()).insert(any());
+        assertEquals(1, transactions.size(), "a failed flush must not leave the head without its entry");
+        assertEquals(0, new BigDecimal("30.00").compareTo(service.getWallet("S1").getBalance()));
+    }
+
+    @Test
+    void refundInATransaction_queuesEntriesAndUpsertsSnapshots() {
+        MongoUnitOfWork uow = mock(MongoUnitOfWork.class);
+        when(uow.isTransactional()).thenReturn(true);
+
+        for (int i = 0; i < 10; i++) {
+            service.refundStudent("S1", BigDecimal.ONE, "B" + i, uow);
+        }
+
+        verify(uow, times(10)).insert(any(WalletTransaction.class));
+        assertTrue(transactions.isEmpty());
+        verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(WalletSnapshot.class));
+        assertTrue(snapshots.isEmpty(), "no plain insert whose duplicate key error would abort the transaction");
+    }
+
+    @Test
+    void getTransactionsPage_walksTheLedgerBySequence() {
+        for (int i = 0; i < 5; i++) {
+            service.addCredits("S1", BigDecimal.ONE, "TOPUP-" + i);
+        }
+
+        CursorPage<WalletTransaction> first = service.getTransactionsPage("S1", null, 2);
+        CursorPage<WalletTransaction> second = service.getTransactionsPage("S1", Long.valueOf(first.getNextCursor()), 2);
+        CursorPage<WalletTransaction> last = service.getTransactionsPage("S1", Long.valueOf(second.getNextCursor()), 2);
+
+        assertEquals(List.of(5L, 4L), first.getItems().stream().map(WalletTransaction::getSeq).toList());
+        assertEquals(List.of(3L, 2L), second.getItems().stream().map(WalletTransaction::getSeq).toList());
+        assertEquals(List.of(1L), last.getItems().stream().map(WalletTransaction::getSeq).toList());
+        assertTrue(first.isHasMore());
+        assertFalse(last.isHasMore());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void getTransactionHistory_pagesByCreatedAtThenIdWithFilters() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 5, 10, 15, 30, 123_000_000);
+        List<WalletTransaction> rows = List.of(
+                txn(new ObjectId().toHexString(), at.plusMinutes(1)),
+                txn("65e6f1a2b3c4d5e6f7a8b9c0", at),
+                txn(new ObjectId().toHexString(), at.minusMinutes(1)));
+        when(mongoTemplate.find(any(Query.class), eq(WalletTransaction.class))).thenReturn(rows);
+
+        CursorPage<WalletTransaction> page = service.getTransactionHistory("S1", WalletTransactionQuery.builder()
+                .type(List.of("PURCHASE", "BOOKING_REFUND"))
+                .from(LocalDate.of(2024, 3, 1)).to(LocalDate.of(2024, 3, 31))
+                .limit(2)
+                .build());
+
+        assertEquals(2, page.getItems().size(), "the extra row only signals another page");
+        assertTrue(page.isHasMore());
+        assertEquals("2024-03-05T10:15:30.123_65e6f1a2b3c4d5e6f7a8b9c0", page.getNextCursor());
+
+        service.getTransactionHistory("S1", WalletTransactionQuery.builder().cursor(page.getNextCursor()).limit(2).build());
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(WalletTransaction.class));
+        Document first = queries.getAllValues().get(0).getQueryObject();
+        assertEquals(new Document("$in", List.of("PURCHASE", "BOOKING_REFUND")), first.get("type"));
+        assertEquals(new Document("$gte", LocalDateTime.of(2024, 3, 1, 0, 0))
+                .append("$lt", LocalDateTime.of(2024, 4, 1, 0, 0)), first.get("createdAt"), "'to' is inclusive");
+        assertEquals(3, queries.getAllValues().get(0).getLimit());
+
+        Query second = queries.getAllValues().get(1);
+        assertEquals(new Document("createdAt", -1).append("_id", -1), second.getSortObject());
+        List<?> after = (List<?>) second.getQueryObject().get("$or");
+        assertEquals(new Document("createdAt", new Document("$lt", at)), after.get(0));
+        assertEquals(new Document("createdAt", at).append("_id",
+                new Document("$lt", new ObjectId("65e6f1a2b3c4d5e6f7a8b9c0"))), after.get(1));
+    }
+
+    @Test
+    void getTransactions_returnsOnlyTheNewestPage() {
+        when(mongoTemplate.find(any(Query.class), eq(WalletTransaction.class))).thenReturn(List.of());
+
+        service.getTransactions("S1", null);
+        service.getTransactions("S1", 100_000);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(WalletTransaction.class));
+        assertEquals(51, queries.getAllValues().get(0).getLimit());
+        assertEquals(WalletService.MAX_PAGE_SIZE + 1, queries.getAllValues().get(1).getLimit());
+        assertEquals(new Document("createdAt", -1).append("_id", -1), queries.getAllValues().get(0).getSortObject());
+    }
+
+    @Test
+    void getTransactionHistory_rejectsMalformedCursors() {
+        for (String cursor : List.of("garbage", "2024-03-05T10:15:30_nothex", "yesterday_65e6f1a2b3c4d5e6f7a8b9c0")) {
+            WalletTransactionQuery query = WalletTransactionQuery.builder().cursor(cursor).build();
+            assertThrows(IllegalArgumentException.class, () -> service.getTransactionHistory("S1", query));
+        }
+    }
+
+    @Test
+    void getMonthlySummary_excludesTracesAndMapsMonths() {
+        Document march = new Document("_id", "2024-03")
+                .append("credits", new Decimal128(new BigDecimal("50.00")))
+                .append("debits", new Decimal128(new BigDecimal("-30.00")))
+                .append("net", new Decimal128(new BigDecimal("20.00")))
+                .append("count", 3)
+                .append("types", List.of(
+                        new Document("type", "PURCHASE").append("amount", new Decimal128(new BigDecimal("50.00"))).append("count", 1),
+                        new Document("type", "BOOKING_HOLD").append("amount", new Decimal128(new BigDecimal("-30.00"))).append("count", 2)));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(WalletTransaction.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(march), new Document()));
+
+        List<WalletMonthlySummary> months = service.getMonthlySummary("S1", null);
+
+        assertEquals(1, months.size());
+        WalletMonthlySummary summary = months.get(0);
+        assertEquals("2024-03", summary.getMonth());
+        assertEquals(0, new BigDecimal("20.00").compareTo(summary.getNet()));
+        assertEquals(0, new BigDecimal("-30.00").compareTo(summary.getDebits()));
+        assertEquals(3, summary.getCount());
+        assertEquals(List.of("PURCHASE", "BOOKING_HOLD"), summary.getTypes().stream().map(WalletMonthlySummary.TypeTotal::getType).toList());
+
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(WalletTransaction.class), eq(Document.class));
+        Document match = ((MatchOperation) aggregation.getValue().getPipeline().getOperations().get(0))
+                .toDocument(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(new Document("$match", new Document("studentId", "S1")
+                .append("type", new Document("$ne", WalletService.TRACE_TYPE))), match);
+    }
+
+    @Test
+    void nonPositiveAmounts_areRejected() {
+        assertThrows(RuntimeException.class, () -> service.addCredits("S1", BigDecimal.ZERO, "X"));
+        assertThrows(RuntimeException.class, () -> service.holdCredits("S1", new BigDecimal("-5"), "X"));
+        verify(txnRepo, never()).save(any());
+    }
+
+    private Wallet findAndModify(Query query, Update update, FindAndModifyOptions options) {
+        Document filter = query.getQueryObject();
+        String studentId = filter.getString("studentId");
+        Document balanceGuard = (Document) filter.get("balance");
+        BigDecimal min = balanceGuard == null ? null : ((Decimal128) balanceGuard.get("$gte")).bigDecimalValue();
+        Document inc = (Document) update.getUpdateObject().get("$inc");
+        BigDecimal delta = ((Decimal128) inc.get("balance")).bigDecimalValue();
+        long seqDelta = inc.containsKey("seq") ? ((Number) inc.get("seq")).longValue() : 0;
+
+        Head[] result = new Head[1];
+        heads.compute(studentId, (id, current) -> {
+            if (current == null && !options.isUpsert()) return null;
+            Head base = current == null ? new Head(BigDecimal.ZERO, 0) : current;
+            if (min != null && base.balance().compareTo(min) < 0) return current;
+            result[0] = new Head(base.balance().add(delta), base.seq() + seqDelta);
+            return result[0];
+        });
+        return result[0] == null ? null : wallet(studentId, result[0]);
+    }
+
+    private BigDecimal balance(String studentId) {
+        return heads.get(studentId).balance();
+    }
+
+    private static WalletTransaction txn(String id, LocalDateTime createdAt) {
+        return WalletTransaction.builder().id(id).studentId("S1").type("PURCHASE")
+                .amount(BigDecimal.ONE).createdAt(createdAt).build();
+    }
+
+    private static Wallet wallet(String studentId, Head head) {
+        return new Wallet("W-" + studentId, studentId, head.balance(), "SGD", null, head.seq());
+    }
+
+    private record Head(BigDecimal balance, long seq) {
+    }
+}
@@ -15,13 +15,16 @@ export const GetWalletByUserId = async (
 };
 
 /**
- * Get wallet transactions for a student
+ * Get one page of wallet transactions for a student, newest first.
+ * Resolves to { items, nextCursor, hasMore }; pass nextCursor back for the next page.
  */
 export const GetWalletTransactions = async (
   studentId: string,
-  authtoken: string
+  authtoken: string,
+  cursor?: string | null
 ): Promise<AxiosResponse<any>> => {
-  return await axios.get(`${BASE_URL}/transactions/${studentId}`, {
+  return await axios.get(`${BASE_URL}/transactions/${studentId}/history`, {
+    params: cursor ? { cursor } : undefined,
     headers: { Authorization: `Bearer ${authtoken}` },
   });
 };
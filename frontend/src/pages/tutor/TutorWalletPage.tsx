@@ -11,6 +11,8 @@ const TutorWalletPage = () => {
 
   const [balance, setBalance] = useState<number>(0);
   const [transactions, setTransactions] = useState<any[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState<boolean>(false);
   const [loading, setLoading] = useState<boolean>(true);
 
   // --------------------------
@@ -30,7 +32,8 @@ const TutorWalletPage = () => {
       ]);
 
       setBalance(walletRes.data.balance ?? 0);
-      setTransactions(txnRes.data ?? []);
+      setTransactions(txnRes.data?.items ?? []);
+      setNextCursor(txnRes.data?.nextCursor ?? null);
     } catch (err: any) {
       toast.error(err?.response?.data?.message || "Failed to fetch wallet details");
       console.error(err);
@@ -39,6 +42,25 @@ const TutorWalletPage = () => {
     }
   };
 
+  // --------------------------
+  // Load the next page of transactions
+  // --------------------------
+  const loadMoreTransactions = async () => {
+    if (!user?.id || !user?.token || !nextCursor) return;
+
+    setLoadingMore(true);
+    try {
+      const txnRes = await GetWalletTransactions(user.id, user.token, nextCursor);
+      setTransactions((prev) => [...prev, ...(txnRes.data?.items ?? [])]);
+      setNextCursor(txnRes.data?.nextCursor ?? null);
+    } catch (err: any) {
+      toast.error(err?.response?.data?.message || "Failed to load more transactions");
+      console.error(err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     fetchWallet();
     // eslint-disable-next-line react-hooks/exhaustive-deps
@@ -109,6 +131,16 @@ const TutorWalletPage = () => {
                   </tbody>
                 </table>
               )}
+              {nextCursor && (
+                <div className="text-center mt-4">
+                  <button
+                    onClick={loadMoreTransactions}
+                    disabled={loadingMore}
+                    className="px-4 py-2 bg-gray-200 rounded-md hover:bg-gray-300 transition disabled:opacity-50">
+                    {loadingMore ? "Loading..." : "Load more"}
+                  </button>
+                </div>
+              )}
             </div>
           </>
         )}